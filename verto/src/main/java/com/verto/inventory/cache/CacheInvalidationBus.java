@@ -0,0 +1,120 @@
+package com.verto.inventory.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Connects the node-local {@link ProductCache} to the other nodes: local writes are
+ * broadcast once committed, and invalidations from other nodes evict local entries.
+ *
+ * Publishing is handed to a background thread. After-commit callbacks still hold the
+ * request's connection, so publishing inline would need a second one per write and
+ * can exhaust the pool under concurrent writes. Ids queued while a batch is being
+ * sent go out together, so a hot product is published once per batch.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    private final ProductCache productCache;
+    private final InvalidationTransport transport;
+    private final BlockingQueue<Long> pending = new LinkedBlockingQueue<>();
+
+    private volatile Thread publisher;
+
+    public void publish(Long productId) {
+        pending.add(productId);
+    }
+
+    public void publish(Collection<Long> productIds) {
+        pending.addAll(productIds);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (publisher != null) {
+            return;
+        }
+        transport.start(productCache::invalidateAll);
+        publisher = new Thread(this::publishLoop, "cache-invalidation-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        Thread running = publisher;
+        if (running == null) {
+            return;
+        }
+        publisher = null;
+        running.interrupt();
+        try {
+            running.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        publishPending();
+        transport.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return publisher != null;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stopped after GracefulDrainLifecycle, so writes that finish while draining are
+        // still published by the final flush in stop().
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void publishLoop() {
+        while (publisher == Thread.currentThread()) {
+            try {
+                Long first = pending.take();
+                Set<Long> batch = new LinkedHashSet<>();
+                batch.add(first);
+                drainInto(batch);
+                send(batch);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void publishPending() {
+        Set<Long> batch = new LinkedHashSet<>();
+        drainInto(batch);
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private void drainInto(Set<Long> batch) {
+        List<Long> drained = new ArrayList<>();
+        pending.drainTo(drained);
+        batch.addAll(drained);
+    }
+
+    private void send(Set<Long> batch) {
+        try {
+            transport.publish(batch);
+        } catch (RuntimeException e) {
+            // The change is already committed; other nodes fall back to the cache TTL.
+            log.warn("Failed to publish invalidation for products {}: {}", batch, e.getMessage());
+        }
+    }
+}
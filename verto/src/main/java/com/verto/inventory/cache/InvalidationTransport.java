@@ -0,0 +1,40 @@
+package com.verto.inventory.cache;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Carries product invalidations between nodes. The default implementation polls a
+ * database table; a message broker can be plugged in by declaring another bean of
+ * this type.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Broadcasts that the given products changed. Called after the change committed.
+     */
+    void publish(Collection<Long> productIds);
+
+    /**
+     * Starts delivering invalidations published by other nodes to {@code listener}.
+     */
+    void start(Consumer<Collection<Long>> listener);
+
+    void stop();
+
+    static InvalidationTransport localOnly() {
+        return new InvalidationTransport() {
+            @Override
+            public void publish(Collection<Long> productIds) {
+            }
+
+            @Override
+            public void start(Consumer<Collection<Long>> listener) {
+            }
+
+            @Override
+            public void stop() {
+            }
+        };
+    }
+}
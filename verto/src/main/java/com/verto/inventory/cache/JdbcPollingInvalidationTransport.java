@@ -0,0 +1,146 @@
+package com.verto.inventory.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts invalidations through the {@code product_invalidations} table. Each node
+ * inserts a row per changed product and polls for rows written by other nodes, so the
+ * staleness window is roughly one poll interval.
+ *
+ * Polls re-read an overlap window behind the newest row seen, because a row can
+ * become visible after a newer one if its transaction commits later. Rows already
+ * handled in that window are skipped by id.
+ */
+@Slf4j
+public class JdbcPollingInvalidationTransport implements InvalidationTransport {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO product_invalidations (product_id, origin_node) VALUES (?, ?)";
+    private static final String POLL_SQL =
+            "SELECT id, product_id, origin_node, created_at FROM product_invalidations "
+                    + "WHERE created_at >= ? ORDER BY id";
+    private static final String WATERMARK_SQL = "SELECT MAX(created_at) FROM product_invalidations";
+    private static final String CLEANUP_SQL = "DELETE FROM product_invalidations WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate publishTransaction;
+    private final String nodeId;
+    private final Duration pollInterval;
+    private final Duration overlap;
+    private final Duration retention;
+    private final Map<Long, Timestamp> seen = new HashMap<>();
+
+    private ScheduledExecutorService poller;
+    private Consumer<Collection<Long>> listener;
+    private Timestamp watermark;
+    private long nextCleanupAt;
+
+    public JdbcPollingInvalidationTransport(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                            String nodeId, Duration pollInterval, Duration overlap,
+                                            Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        // The insert must commit on its own even if the caller has a transaction bound.
+        this.publishTransaction = new TransactionTemplate(transactionManager);
+        this.publishTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = nodeId;
+        this.pollInterval = pollInterval;
+        this.overlap = overlap;
+        this.retention = retention;
+    }
+
+    @Override
+    public void publish(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            rows.add(new Object[]{productId, nodeId});
+        }
+        publishTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+    }
+
+    @Override
+    public synchronized void start(Consumer<Collection<Long>> listener) {
+        if (poller != null) {
+            return;
+        }
+        this.listener = listener;
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = pollInterval.toMillis();
+        poller.scheduleWithFixedDelay(this::pollSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Polling product invalidations failed: {}", e.getMessage());
+        }
+    }
+
+    void poll() {
+        if (watermark == null) {
+            // Older rows predate this node's cache; the overlap window still covers
+            // anything published while the node was starting.
+            Timestamp newest = jdbcTemplate.queryForObject(WATERMARK_SQL, Timestamp.class);
+            watermark = newest != null ? newest : new Timestamp(0);
+        }
+
+        Timestamp since = new Timestamp(watermark.getTime() - overlap.toMillis());
+        List<Long> changed = new ArrayList<>();
+        jdbcTemplate.query(POLL_SQL, resultSet -> {
+            long id = resultSet.getLong("id");
+            Timestamp createdAt = resultSet.getTimestamp("created_at");
+            if (createdAt.after(watermark)) {
+                watermark = createdAt;
+            }
+            if (seen.putIfAbsent(id, createdAt) == null && !nodeId.equals(resultSet.getString("origin_node"))) {
+                changed.add(resultSet.getLong("product_id"));
+            }
+        }, since);
+
+        if (!changed.isEmpty()) {
+            listener.accept(changed);
+        }
+        seen.values().removeIf(createdAt -> createdAt.before(since));
+        cleanUpExpired();
+    }
+
+    private void cleanUpExpired() {
+        long now = System.currentTimeMillis();
+        if (now < nextCleanupAt) {
+            return;
+        }
+        nextCleanupAt = now + retention.toMillis() / 10;
+        jdbcTemplate.update(CLEANUP_SQL, new Timestamp(watermark.getTime() - retention.toMillis()));
+    }
+}
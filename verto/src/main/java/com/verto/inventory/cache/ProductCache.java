@@ -0,0 +1,150 @@
+package com.verto.inventory.cache;
+
+import com.verto.inventory.config.CacheProperties;
+import com.verto.inventory.entity.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Node-local cache of products by id. Entries expire after a TTL, which also bounds
+ * staleness if an invalidation is ever lost. Products are mutable entities, so the
+ * cache keeps its own copy and hands every caller a fresh one; a caller changing its
+ * product cannot change what other readers see.
+ *
+ * Ids are spread over up to 256 segments, each an LRU map sharing
+ * {@code maxEntries}. A full segment evicts its least recently read entry, so expired
+ * entries that are never read again age out instead of filling the cache.
+ *
+ * Every invalidation bumps a version for the id's stripe before removing the entry.
+ * A loader reads the version before querying and only keeps its result if the version
+ * is unchanged afterwards, so a load that raced with a write cannot re-cache the old
+ * row.
+ */
+@Component
+public class ProductCache {
+
+    private static final int VERSION_STRIPES = 256;
+    private static final int MAX_SEGMENTS = 256;
+
+    private final Segment[] segments;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    @Autowired
+    public ProductCache(CacheProperties properties) {
+        this(properties.isEnabled(), properties.getTtl().toNanos(), properties.getMaxEntries(), System::nanoTime);
+    }
+
+    ProductCache(boolean enabled, long ttlNanos, int maxEntries, LongSupplier clock) {
+        this.enabled = enabled;
+        this.ttlNanos = ttlNanos;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        int segmentCount = Math.max(1, Integer.highestOneBit(Math.min(MAX_SEGMENTS, maxEntries)));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxEntries / segmentCount);
+        }
+    }
+
+    public Product get(Long id) {
+        if (!enabled) {
+            return null;
+        }
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            Entry entry = segment.get(id);
+            if (entry == null) {
+                return null;
+            }
+            if (clock.getAsLong() - entry.expiresAt > 0) {
+                segment.remove(id);
+                return null;
+            }
+            return entry.product.copy();
+        }
+    }
+
+    public long version(Long id) {
+        return versions.get(stripe(id));
+    }
+
+    public void putIfUnchanged(Long id, Product product, long version) {
+        if (!enabled) {
+            return;
+        }
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            // invalidate bumps the version before taking the segment lock, so checking it
+            // here is enough to keep a raced load out.
+            if (versions.get(stripe(id)) == version) {
+                segment.put(id, new Entry(product.copy(), clock.getAsLong() + ttlNanos));
+            }
+        }
+    }
+
+    public void invalidate(Long id) {
+        versions.incrementAndGet(stripe(id));
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            segment.remove(id);
+        }
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        ids.forEach(this::invalidate);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentFor(Long id) {
+        return segments[Long.hashCode(id) & (segments.length - 1)];
+    }
+
+    private static int stripe(Long id) {
+        return (int) (Long.hashCode(id) & (VERSION_STRIPES - 1));
+    }
+
+    private static final class Segment extends LinkedHashMap<Long, Entry> {
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private static final class Entry {
+
+        private final Product product;
+        private final long expiresAt;
+
+        Entry(Product product, long expiresAt) {
+            this.product = product;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
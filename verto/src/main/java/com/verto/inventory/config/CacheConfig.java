@@ -0,0 +1,33 @@
+package com.verto.inventory.config;
+
+import com.verto.inventory.cache.InvalidationTransport;
+import com.verto.inventory.cache.JdbcPollingInvalidationTransport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(InvalidationTransport.class)
+    @ConditionalOnProperty(name = "inventory.cache.invalidation.transport", havingValue = "jdbc", matchIfMissing = true)
+    public JdbcPollingInvalidationTransport jdbcInvalidationTransport(JdbcTemplate jdbcTemplate,
+                                                                      PlatformTransactionManager transactionManager,
+                                                                      CacheProperties properties) {
+        CacheProperties.Invalidation invalidation = properties.getInvalidation();
+        return new JdbcPollingInvalidationTransport(jdbcTemplate, transactionManager, invalidation.getNodeId(),
+                invalidation.getPollInterval(), invalidation.getOverlap(), invalidation.getRetention());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(InvalidationTransport.class)
+    public InvalidationTransport localOnlyInvalidationTransport() {
+        return InvalidationTransport.localOnly();
+    }
+}
@@ -0,0 +1,29 @@
+package com.verto.inventory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Data
+@ConfigurationProperties(prefix = "inventory.cache")
+public class CacheProperties {
+
+    private boolean enabled = true;
+
+    private Duration ttl = Duration.ofSeconds(30);
+
+    private int maxEntries = 100_000;
+
+    private Invalidation invalidation = new Invalidation();
+
+    @Data
+    public static class Invalidation {
+        private String transport = "jdbc";
+        private String nodeId = UUID.randomUUID().toString();
+        private Duration pollInterval = Duration.ofMillis(500);
+        private Duration overlap = Duration.ofSeconds(2);
+        private Duration retention = Duration.ofHours(1);
+    }
+}
@@ -0,0 +1,26 @@
+package com.verto.inventory.config;
+
+import com.verto.inventory.repository.PartitionedProductStore;
+import com.verto.inventory.repository.ProductPartitionMigration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(PartitioningProperties.class)
+public class PartitioningConfig {
+
+    // Picked up by Flyway's auto-configuration alongside the classpath migrations.
+    @Bean
+    public ProductPartitionMigration productPartitionMigration(PartitioningProperties properties) {
+        return new ProductPartitionMigration(properties.isEnabled(), properties.getPartitions());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "inventory.partitioning.enabled", havingValue = "true")
+    public PartitionedProductStore partitionedProductStore(JdbcTemplate jdbcTemplate, PartitioningProperties properties) {
+        return new PartitionedProductStore(jdbcTemplate, properties.getPartitions(), properties.getFanOutThreads());
+    }
+}
@@ -0,0 +1,15 @@
+package com.verto.inventory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "inventory.partitioning")
+public class PartitioningProperties {
+
+    private boolean enabled = false;
+
+    private int partitions = 16;
+
+    private int fanOutThreads = 8;
+}
@@ -0,0 +1,58 @@
+package com.verto.inventory.config;
+
+import com.verto.inventory.ratelimit.AdaptiveConcurrencyLimiter;
+import com.verto.inventory.ratelimit.LoadSheddingInterceptor;
+import com.verto.inventory.ratelimit.ProductRateLimit;
+import com.verto.inventory.ratelimit.RateLimitMetrics;
+import com.verto.inventory.ratelimit.StockRateLimitInterceptor;
+import com.verto.inventory.ratelimit.TokenBucketRateLimiter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RateLimitProperties properties;
+    private final TokenBucketRateLimiter clientLimiter;
+    private final TokenBucketRateLimiter productLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    public RateLimitConfig(RateLimitProperties properties) {
+        this.properties = properties;
+        this.clientLimiter = new TokenBucketRateLimiter(properties.getClient().getPermitsPerSecond(),
+                properties.getClient().getBurst(), properties.getStripes());
+        this.productLimiter = new TokenBucketRateLimiter(properties.getProduct().getPermitsPerSecond(),
+                properties.getProduct().getBurst(), properties.getStripes());
+        RateLimitProperties.Concurrency concurrency = properties.getConcurrency();
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(concurrency.getInitialLimit(),
+                concurrency.getMinLimit(), concurrency.getMaxLimit(),
+                concurrency.getLatencyThreshold().toNanos(), concurrency.getBackoffRatio());
+    }
+
+    @Bean
+    public RateLimitMetrics rateLimitMetrics() {
+        return new RateLimitMetrics(clientLimiter, productLimiter, concurrencyLimiter);
+    }
+
+    @Bean
+    public ProductRateLimit productRateLimit() {
+        return new ProductRateLimit(productLimiter, properties.isEnabled());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // Shedding runs first, so a request turned away for capacity spends no rate-limit tokens.
+        registry.addInterceptor(new LoadSheddingInterceptor(concurrencyLimiter, properties.getConcurrency().getRetryAfterSeconds()))
+                .addPathPatterns("/products", "/products/**", "/orders/**");
+        registry.addInterceptor(new StockRateLimitInterceptor(clientLimiter, productLimiter,
+                        properties.getClientHeader(), properties.getTrustedProxies()))
+                .addPathPatterns("/products/*/increase", "/products/*/decrease", "/orders/allocate");
+    }
+}
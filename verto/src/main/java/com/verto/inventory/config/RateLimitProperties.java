@@ -0,0 +1,48 @@
+package com.verto.inventory.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "inventory.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private String clientHeader = "X-Client-Id";
+
+    // Remote addresses whose client header is believed.
+    private Set<String> trustedProxies = new HashSet<>();
+
+    private int stripes = 1024;
+
+    private Bucket client = new Bucket(50, 100);
+
+    private Bucket product = new Bucket(200, 400);
+
+    private Concurrency concurrency = new Concurrency();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private double permitsPerSecond;
+        private int burst;
+    }
+
+    @Data
+    public static class Concurrency {
+        private int initialLimit = 64;
+        private int minLimit = 8;
+        private int maxLimit = 256;
+        private Duration latencyThreshold = Duration.ofMillis(500);
+        private double backoffRatio = 0.9;
+        private long retryAfterSeconds = 1;
+    }
+}
@@ -0,0 +1,26 @@
+package com.verto.inventory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "inventory.replenishment")
+public class ReplenishmentProperties {
+
+    private boolean enabled = true;
+
+    private int chunkSize = 1000;
+
+    private int workers = 4;
+
+    private int maxSuggestions = 10_000;
+
+    private int leadTimeDays = 7;
+
+    private int defaultReorderQuantity = 20;
+
+    private Map<Long, Integer> reorderQuantities = new HashMap<>();
+}
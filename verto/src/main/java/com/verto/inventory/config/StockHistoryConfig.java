@@ -0,0 +1,9 @@
+package com.verto.inventory.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(StockHistoryProperties.class)
+public class StockHistoryConfig {
+}
@@ -0,0 +1,15 @@
+package com.verto.inventory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "inventory.history")
+public class StockHistoryProperties {
+
+    private int minuteSlots = 60;
+
+    private int hourSlots = 24;
+
+    private int daySlots = 30;
+}
@@ -0,0 +1,50 @@
+package com.verto.inventory.controller;
+
+import com.verto.inventory.dto.AllocationRequest;
+import com.verto.inventory.dto.AllocationResult;
+import com.verto.inventory.ratelimit.ProductRateLimit;
+import com.verto.inventory.service.ProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import javax.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+@RestController
+@RequestMapping("/orders")
+@RequiredArgsConstructor
+@Tag(name = "Order Allocation", description = "APIs for allocating stock to multi-product orders")
+public class OrderController {
+
+    private final ProductService productService;
+    private final ProductRateLimit productRateLimit;
+
+    @PostMapping("/allocate")
+    @Operation(summary = "Allocate stock for an order",
+            description = "Decreases stock for every order line in one transaction, or for none of them if any line is short")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Every line allocated"),
+            @ApiResponse(responseCode = "409", description = "Nothing allocated; lines report their shortfall"),
+            @ApiResponse(responseCode = "400", description = "Invalid order lines"),
+            @ApiResponse(responseCode = "429", description = "Too many stock updates for a product in the order")
+    })
+    public ResponseEntity<AllocationResult> allocate(@Valid @RequestBody AllocationRequest request) {
+        // The interceptor only sees the URL, so the per-product limit is applied here.
+        SortedSet<Long> productIds = new TreeSet<>();
+        request.getLines().forEach(line -> productIds.add(line.getProductId()));
+        productRateLimit.acquire(productIds);
+
+        AllocationResult result = productService.allocate(request);
+        return ResponseEntity.status(result.isAllocated() ? HttpStatus.OK : HttpStatus.CONFLICT).body(result);
+    }
+}
@@ -1,5 +1,9 @@
 package com.verto.inventory.controller;
 
+import com.verto.inventory.dto.ErrorResponse;
+import com.verto.inventory.dto.HistoryResolution;
+import com.verto.inventory.dto.StockHistory;
+import com.verto.inventory.dto.StockResult;
 import com.verto.inventory.dto.StockUpdateRequest;
 import com.verto.inventory.entity.Product;
 import com.verto.inventory.service.ProductService;
@@ -8,6 +12,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -56,6 +61,21 @@ public class ProductController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Get stock history", description = "Retrieves a product's stock levels and units decreased per minute, hour or day bucket")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock history found"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "400", description = "Invalid resolution")
+    })
+    public ResponseEntity<StockHistory> getStockHistory(
+            @Parameter(description = "Product ID") @PathVariable Long id,
+            @Parameter(description = "Bucket size: minute, hour or day") @RequestParam(defaultValue = "hour") String resolution) {
+        return productService.getStockHistory(id, HistoryResolution.fromParameter(resolution))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update product", description = "Updates an existing product's details (not stock)")
     @ApiResponses(value = {
@@ -66,12 +86,8 @@ public class ProductController {
     public ResponseEntity<Product> updateProduct(
             @Parameter(description = "Product ID") @PathVariable Long id,
             @Valid @RequestBody Product productDetails) {
-        try {
-            Product updatedProduct = productService.updateProduct(id, productDetails);
-            return ResponseEntity.ok(updatedProduct);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        Product updatedProduct = productService.updateProduct(id, productDetails);
+        return ResponseEntity.ok(updatedProduct);
     }
 
     @DeleteMapping("/{id}")
@@ -82,12 +98,8 @@ public class ProductController {
     })
     public ResponseEntity<Void> deleteProduct(
             @Parameter(description = "Product ID") @PathVariable Long id) {
-        try {
-            productService.deleteProduct(id);
-            return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        productService.deleteProduct(id);
+        return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/{id}/increase")
@@ -100,12 +112,8 @@ public class ProductController {
     public ResponseEntity<Product> increaseStock(
             @Parameter(description = "Product ID") @PathVariable Long id,
             @Valid @RequestBody StockUpdateRequest request) {
-        try {
-            Product updatedProduct = productService.increaseStock(id, request);
-            return ResponseEntity.ok(updatedProduct);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        Product updatedProduct = productService.increaseStock(id, request);
+        return ResponseEntity.ok(updatedProduct);
     }
 
     @PostMapping("/{id}/decrease")
@@ -115,16 +123,19 @@ public class ProductController {
             @ApiResponse(responseCode = "404", description = "Product not found"),
             @ApiResponse(responseCode = "400", description = "Invalid quantity or insufficient stock")
     })
-    public ResponseEntity<Product> decreaseStock(
+    public ResponseEntity<?> decreaseStock(
             @Parameter(description = "Product ID") @PathVariable Long id,
-            @Valid @RequestBody StockUpdateRequest request) {
-        try {
-            Product updatedProduct = productService.decreaseStock(id, request);
-            return ResponseEntity.ok(updatedProduct);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
+            @Valid @RequestBody StockUpdateRequest request,
+            HttpServletRequest httpRequest) {
+        StockResult result = productService.tryDecreaseStock(id, request);
+        switch (result.getStatus()) {
+            case OK:
+                return ResponseEntity.ok(result.getProduct());
+            case NOT_FOUND:
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ErrorResponse.productNotFound(id, httpRequest.getRequestURI()));
+            default:
+                return ResponseEntity.badRequest().body(ErrorResponse.insufficientStock(result.getAvailableQuantity(),
+                        httpRequest.getRequestURI()));
         }
     }
 
@@ -0,0 +1,31 @@
+package com.verto.inventory.controller;
+
+import com.verto.inventory.dto.ReplenishmentSuggestion;
+import com.verto.inventory.service.ReplenishmentPlanner;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/replenishment")
+@RequiredArgsConstructor
+@Tag(name = "Replenishment", description = "APIs for purchase suggestions based on stock levels and sales velocity")
+public class ReplenishmentController {
+
+    private final ReplenishmentPlanner replenishmentPlanner;
+
+    @GetMapping("/suggestions")
+    @Operation(summary = "Get replenishment suggestions",
+            description = "Retrieves purchase suggestions from the latest catalog scan, most urgent first")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved replenishment suggestions")
+    public ResponseEntity<List<ReplenishmentSuggestion>> getSuggestions() {
+        return ResponseEntity.ok(replenishmentPlanner.getSuggestions());
+    }
+}
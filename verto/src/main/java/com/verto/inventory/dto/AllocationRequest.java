@@ -0,0 +1,36 @@
+package com.verto.inventory.dto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+public class AllocationRequest {
+
+    @NotEmpty(message = "At least one order line is required")
+    @Size(max = 500, message = "An order can have at most 500 lines")
+    @Valid
+    private List<Line> lines;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+
+        @NotNull(message = "Product id is required")
+        private Long productId;
+
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be positive")
+        @Max(value = 1_000_000, message = "Quantity must be at most 1000000")
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,36 @@
+package com.verto.inventory.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Outcome of an order allocation, with one line per product in ascending id order.
+ * Nothing is decremented unless every line is {@code ALLOCATED}.
+ */
+@Value
+public class AllocationResult {
+
+    public enum LineStatus {
+        ALLOCATED,
+        AVAILABLE,
+        INSUFFICIENT_STOCK,
+        NOT_FOUND
+    }
+
+    boolean allocated;
+    List<Line> lines;
+
+    /**
+     * {@code stockQuantity} is the stock left after allocation, or the current stock when
+     * the order was rejected.
+     */
+    @Value
+    public static class Line {
+        Long productId;
+        int requestedQuantity;
+        int stockQuantity;
+        int shortfall;
+        LineStatus status;
+    }
+}
@@ -0,0 +1,42 @@
+package com.verto.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Error body returned by the API, with the path of the request that failed.
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ErrorResponse {
+
+    LocalDateTime timestamp;
+    int status;
+    String error;
+    String message;
+    String path;
+    Integer availableQuantity;
+    Map<String, String> validationErrors;
+
+    public static ErrorResponse of(HttpStatus status, String error, String message, String path) {
+        return new ErrorResponse(LocalDateTime.now(), status.value(), error, message, path, null, null);
+    }
+
+    public static ErrorResponse productNotFound(Long productId, String path) {
+        return of(HttpStatus.NOT_FOUND, "Not Found", "Product not found with id: " + productId, path);
+    }
+
+    public static ErrorResponse insufficientStock(int availableQuantity, String path) {
+        return new ErrorResponse(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), "Bad Request",
+                "Cannot decrease stock below zero. Current stock: " + availableQuantity, path, availableQuantity, null);
+    }
+
+    public static ErrorResponse invalid(Map<String, String> validationErrors, String path) {
+        return new ErrorResponse(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), "Validation Failed",
+                "Invalid input data", path, null, validationErrors);
+    }
+}
@@ -0,0 +1,28 @@
+package com.verto.inventory.dto;
+
+import java.time.Duration;
+import java.util.Locale;
+
+public enum HistoryResolution {
+    MINUTE(Duration.ofMinutes(1)),
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1));
+
+    private final long bucketMillis;
+
+    HistoryResolution(Duration bucket) {
+        this.bucketMillis = bucket.toMillis();
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    public static HistoryResolution fromParameter(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown resolution '" + value + "', expected minute, hour or day");
+        }
+    }
+}
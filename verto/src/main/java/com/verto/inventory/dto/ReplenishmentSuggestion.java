@@ -0,0 +1,14 @@
+package com.verto.inventory.dto;
+
+import lombok.Value;
+
+@Value
+public class ReplenishmentSuggestion {
+    Long productId;
+    String name;
+    int stockQuantity;
+    int lowStockThreshold;
+    double unitsPerDay;
+    Double daysOfCover;
+    int suggestedQuantity;
+}
@@ -0,0 +1,20 @@
+package com.verto.inventory.dto;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+@Value
+public class StockHistory {
+    Long productId;
+    HistoryResolution resolution;
+    List<Point> points;
+
+    @Value
+    public static class Point {
+        Instant bucketStart;
+        Integer stockLevel;
+        long decreased;
+    }
+}
@@ -0,0 +1,11 @@
+package com.verto.inventory.dto;
+
+import lombok.Value;
+
+@Value
+public class StockLevel {
+    Long id;
+    String name;
+    Integer stockQuantity;
+    Integer lowStockThreshold;
+}
@@ -0,0 +1,43 @@
+package com.verto.inventory.dto;
+
+import com.verto.inventory.entity.Product;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Outcome of a stock change that can be rejected, returned instead of thrown so the
+ * rejection path costs no more than the success path.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class StockResult {
+
+    public enum Status {
+        OK,
+        NOT_FOUND,
+        INSUFFICIENT_STOCK
+    }
+
+    private static final StockResult NOT_FOUND_RESULT = new StockResult(Status.NOT_FOUND, null, 0);
+
+    Status status;
+    Product product;
+    int availableQuantity;
+
+    public static StockResult ok(Product product) {
+        return new StockResult(Status.OK, product, product.getStockQuantity());
+    }
+
+    public static StockResult notFound() {
+        return NOT_FOUND_RESULT;
+    }
+
+    public static StockResult insufficientStock(int availableQuantity) {
+        return new StockResult(Status.INSUFFICIENT_STOCK, null, availableQuantity);
+    }
+
+    public boolean isOk() {
+        return status == Status.OK;
+    }
+}
@@ -35,6 +35,13 @@ public class Product {
     @Column(name = "low_stock_threshold", nullable = false)
     private Integer lowStockThreshold = 5;
 
+    /**
+     * Detached copy with the same column values, for handing out cached or shared rows.
+     */
+    public Product copy() {
+        return new Product(id, name, description, stockQuantity, lowStockThreshold);
+    }
+
     @PrePersist
     @PreUpdate
     private void validateStock() {
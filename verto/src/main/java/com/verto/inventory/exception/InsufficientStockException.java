@@ -0,0 +1,21 @@
+package com.verto.inventory.exception;
+
+import lombok.Getter;
+
+/**
+ * Rejections are routine during a sell-out, so no stack trace is captured.
+ */
+@Getter
+public class InsufficientStockException extends RuntimeException {
+
+    private final Long productId;
+    private final int availableQuantity;
+    private final int requestedQuantity;
+
+    public InsufficientStockException(Long productId, int availableQuantity, int requestedQuantity) {
+        super("Cannot decrease stock below zero. Current stock: " + availableQuantity, null, false, false);
+        this.productId = productId;
+        this.availableQuantity = availableQuantity;
+        this.requestedQuantity = requestedQuantity;
+    }
+}
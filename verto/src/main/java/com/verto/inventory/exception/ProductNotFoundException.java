@@ -0,0 +1,14 @@
+package com.verto.inventory.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ProductNotFoundException extends RuntimeException {
+
+    private final Long productId;
+
+    public ProductNotFoundException(Long productId) {
+        super("Product not found with id: " + productId, null, false, false);
+        this.productId = productId;
+    }
+}
@@ -0,0 +1,24 @@
+package com.verto.inventory.lifecycle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exits as soon as the application is ready. Used for the class-data-sharing training
+ * run in the Dockerfile, where the JVM dumps its loaded classes on exit.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.startup.exit-after-ready", havingValue = "true")
+public class ExitAfterReadyListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        log.info("Application ready, exiting as requested by inventory.startup.exit-after-ready");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.verto.inventory.lifecycle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Runs after the web server has finished its own graceful shutdown (which stops new
+ * requests and waits for active ones) and before the data source is closed, and waits
+ * for the calls {@link InFlightOperationsAspect} tracks that are still running:
+ * {@code ProductService} calls, replenishment scans and {@code @Scheduled} jobs such as
+ * the stock history prune.
+ */
+@Slf4j
+@Component
+public class GracefulDrainLifecycle implements SmartLifecycle {
+
+    private final InFlightOperations inFlightOperations;
+    private final Duration timeout;
+    private volatile boolean running;
+
+    public GracefulDrainLifecycle(InFlightOperations inFlightOperations,
+                                  @Value("${spring.lifecycle.timeout-per-shutdown-phase:30s}") Duration timeout) {
+        this.inFlightOperations = inFlightOperations;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        int pending = inFlightOperations.getInFlight();
+        log.info("Draining {} in-flight service call(s)", pending);
+        try {
+            if (!inFlightOperations.drain(timeout)) {
+                log.warn("Shutdown timed out with {} service call(s) still running", inFlightOperations.getInFlight());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stopped after WebServerGracefulShutdownLifecycle and WebServerStartStopLifecycle.
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+}
@@ -0,0 +1,61 @@
+package com.verto.inventory.lifecycle;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Counts service calls currently executing so shutdown can wait for them. Once
+ * draining starts, new calls are refused instead of being admitted.
+ */
+@Component
+public class InFlightOperations {
+
+    private final Object monitor = new Object();
+    private int inFlight;
+    private boolean draining;
+
+    public boolean tryEnter() {
+        synchronized (monitor) {
+            if (draining) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        }
+    }
+
+    public void exit() {
+        synchronized (monitor) {
+            if (--inFlight == 0) {
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Stops admitting new calls and waits for the ones already running.
+     *
+     * @return true if everything finished within {@code timeout}
+     */
+    public boolean drain(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (monitor) {
+            draining = true;
+            while (inFlight > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                monitor.wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+            }
+            return true;
+        }
+    }
+
+    public int getInFlight() {
+        synchronized (monitor) {
+            return inFlight;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.verto.inventory.lifecycle;
+
+import com.verto.inventory.exception.ServiceOverloadedException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps service calls and scheduled jobs outside their transaction, so a call counts as
+ * in flight until it has committed or rolled back. Once draining has started, service
+ * calls are refused and scheduled runs are skipped.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class InFlightOperationsAspect {
+
+    private final InFlightOperations inFlightOperations;
+
+    @Around("execution(public * com.verto.inventory.service.ProductService.*(..))"
+            + " || execution(public * com.verto.inventory.service.ReplenishmentPlanner.scan(..))")
+    public Object track(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!inFlightOperations.tryEnter()) {
+            throw new ServiceOverloadedException("Server is shutting down, please retry later", 1);
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            inFlightOperations.exit();
+        }
+    }
+
+    @Around("@annotation(org.springframework.scheduling.annotation.Scheduled)")
+    public Object trackScheduled(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!inFlightOperations.tryEnter()) {
+            // Nobody waits on a scheduled run, so skip it rather than fail it.
+            return null;
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            inFlightOperations.exit();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.verto.inventory.ratelimit;
+
+import com.verto.inventory.exception.RateLimitExceededException;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+
+/**
+ * Per-product limit for stock updates whose products are only known from the request
+ * body, such as the lines of an order allocation. It shares buckets with
+ * {@link StockRateLimitInterceptor}, so an order line counts against its product just
+ * like a single-product decrease.
+ */
+@RequiredArgsConstructor
+public class ProductRateLimit {
+
+    private final TokenBucketRateLimiter productLimiter;
+    private final boolean enabled;
+
+    public void acquire(Collection<Long> productIds) {
+        if (!enabled) {
+            return;
+        }
+        for (Long productId : productIds) {
+            long wait = productLimiter.tryAcquire(String.valueOf(productId));
+            if (wait > 0) {
+                throw new RateLimitExceededException("Too many stock updates for product " + productId,
+                        StockRateLimitInterceptor.toRetryAfterSeconds(wait));
+            }
+        }
+    }
+}
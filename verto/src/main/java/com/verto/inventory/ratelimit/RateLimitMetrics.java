@@ -0,0 +1,36 @@
+package com.verto.inventory.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class RateLimitMetrics implements MeterBinder {
+
+    private final TokenBucketRateLimiter clientLimiter;
+    private final TokenBucketRateLimiter productLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("inventory.rate_limit.rejections", clientLimiter, TokenBucketRateLimiter::getRejections)
+                .tag("limiter", "client")
+                .description("Stock updates rejected by the per-client rate limit")
+                .register(registry);
+        FunctionCounter.builder("inventory.rate_limit.rejections", productLimiter, TokenBucketRateLimiter::getRejections)
+                .tag("limiter", "product")
+                .description("Stock updates rejected by the per-product rate limit")
+                .register(registry);
+        FunctionCounter.builder("inventory.load_shedding.rejections", concurrencyLimiter, AdaptiveConcurrencyLimiter::getRejections)
+                .description("Requests shed because the concurrency limit was reached")
+                .register(registry);
+        Gauge.builder("inventory.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("inventory.concurrency.in_flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently holding a concurrency permit")
+                .register(registry);
+    }
+}
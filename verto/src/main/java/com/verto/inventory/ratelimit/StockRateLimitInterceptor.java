@@ -0,0 +1,70 @@
+package com.verto.inventory.ratelimit;
+
+import com.verto.inventory.exception.RateLimitExceededException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.security.Principal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits stock updates per client and per product. A client is the authenticated
+ * principal, else the remote address. The client header is only believed when the
+ * request comes from one of the trusted proxies, which set it for the caller behind
+ * them; anyone else could send a new value with every request.
+ */
+@RequiredArgsConstructor
+public class StockRateLimitInterceptor implements HandlerInterceptor {
+
+    private final TokenBucketRateLimiter clientLimiter;
+    private final TokenBucketRateLimiter productLimiter;
+    private final String clientHeader;
+    private final Set<String> trustedProxies;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long wait = clientLimiter.tryAcquire(clientKey(request));
+        if (wait > 0) {
+            throw new RateLimitExceededException("Too many stock updates from this client", toRetryAfterSeconds(wait));
+        }
+
+        String productId = productId(request);
+        if (productId != null) {
+            wait = productLimiter.tryAcquire(productId);
+            if (wait > 0) {
+                throw new RateLimitExceededException("Too many stock updates for product " + productId, toRetryAfterSeconds(wait));
+            }
+        }
+        return true;
+    }
+
+    String clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "principal:" + principal.getName();
+        }
+        String address = request.getRemoteAddr();
+        if (trustedProxies.contains(address)) {
+            String client = request.getHeader(clientHeader);
+            if (client != null && !client.isEmpty()) {
+                return "client:" + client;
+            }
+        }
+        return "address:" + address;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String productId(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables != null ? variables.get("id") : null;
+    }
+
+    static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
@@ -0,0 +1,123 @@
+package com.verto.inventory.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket keyed by an arbitrary object. Keys are hashed onto a fixed
+ * number of stripes, so memory stays constant no matter how many clients or products
+ * are seen.
+ *
+ * Each stripe holds its key and a single "theoretical arrival time" (the GCRA
+ * formulation of a token bucket), which lets admission be decided with one CAS instead
+ * of a lock. A key whose stripe is taken by another key tries the next few stripes. A
+ * full bucket carries no state, so any key may take its stripe over. Keys only share a
+ * bucket, and so throttle each other, when every stripe they may use holds another
+ * key's partly drained bucket, which takes more throttled keys than stripes near one
+ * hash.
+ */
+public class TokenBucketRateLimiter {
+
+    // One stripe per cache line to avoid false sharing between neighbouring buckets.
+    private static final int PADDING_SHIFT = 4;
+    private static final int MAX_PROBES = 8;
+
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final int mask;
+    private final int probes;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier clock;
+    private final LongAdder rejections = new LongAdder();
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst, int stripes) {
+        this(permitsPerSecond, burst, stripes, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(double permitsPerSecond, int burst, int stripes, LongSupplier clock) {
+        if (permitsPerSecond <= 0 || burst < 1 || stripes < 1) {
+            throw new IllegalArgumentException("Rate, burst and stripes must be positive");
+        }
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        this.mask = Math.max(size, 1) - 1;
+        this.buckets = new AtomicReferenceArray<>((mask + 1) << PADDING_SHIFT);
+        this.probes = Math.min(MAX_PROBES, mask + 1);
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        long origin = clock.getAsLong();
+        this.clock = () -> clock.getAsLong() - origin;
+    }
+
+    /**
+     * @return 0 if a permit was taken, otherwise the nanoseconds until one becomes available
+     */
+    public long tryAcquire(Object key) {
+        int home = hash(key);
+        long now = clock.getAsLong();
+        while (true) {
+            int index = -1;
+            Bucket current = null;
+            int free = -1;
+            Bucket freed = null;
+            for (int probe = 0; probe < probes && index < 0; probe++) {
+                int candidate = stripe(home + probe);
+                Bucket bucket = buckets.get(candidate);
+                if (bucket != null && bucket.key.equals(key)) {
+                    index = candidate;
+                    current = bucket;
+                } else if (free < 0 && (bucket == null || bucket.arrival <= now)) {
+                    free = candidate;
+                    freed = bucket;
+                }
+            }
+            boolean shared = index < 0 && free < 0;
+            if (shared) {
+                index = stripe(home);
+                current = buckets.get(index);
+            } else if (index < 0) {
+                index = free;
+                current = freed;
+            }
+
+            // The CAS below fails, and the probe is repeated, if the stripe changed since it was read.
+            long start = Math.max(current != null ? current.arrival : now, now);
+            long wait = start - now - burstToleranceNanos;
+            if (wait > 0) {
+                rejections.increment();
+                return wait;
+            }
+            Object owner = shared && current != null ? current.key : key;
+            if (buckets.compareAndSet(index, current, new Bucket(owner, start + emissionIntervalNanos))) {
+                return 0;
+            }
+        }
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        return h;
+    }
+
+    private int stripe(int hash) {
+        return (hash & mask) << PADDING_SHIFT;
+    }
+
+    private static final class Bucket {
+
+        final Object key;
+        final long arrival;
+
+        Bucket(Object key, long arrival) {
+            this.key = key;
+            this.arrival = arrival;
+        }
+    }
+}
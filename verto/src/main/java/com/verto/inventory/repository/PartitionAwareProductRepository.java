@@ -0,0 +1,47 @@
+package com.verto.inventory.repository;
+
+import com.verto.inventory.dto.StockLevel;
+import com.verto.inventory.entity.Product;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+
+/**
+ * The {@link ProductRepository} operations that follow the partitioned layout when
+ * {@code inventory.partitioning.enabled} is set. Other inherited repository methods
+ * always use the unpartitioned {@code products} table.
+ */
+public interface PartitionAwareProductRepository {
+
+    Optional<Product> findById(Long id);
+
+    Optional<Product> findByIdForUpdate(Long id);
+
+    boolean existsById(Long id);
+
+    List<Product> findAll();
+
+    <S extends Product> S save(S product);
+
+    <S extends Product> List<S> saveAll(Iterable<S> products);
+
+    void deleteById(Long id);
+
+    List<Product> findLowStockProducts();
+
+    List<Long> findIdsAfter(Long afterId, Pageable pageable);
+
+    List<StockLevel> findStockLevelsBetween(Long fromId, Long toId);
+
+    List<StockLevel> findStockLevels(Collection<Long> ids);
+
+    /**
+     * Decreases each product's stock by its quantity when it has at least that much, as
+     * one batch of conditional updates in ascending id order. Returns the ids that were
+     * left unchanged because the product is missing or short.
+     */
+    List<Long> decreaseStockIfAvailable(SortedMap<Long, Integer> quantities);
+}
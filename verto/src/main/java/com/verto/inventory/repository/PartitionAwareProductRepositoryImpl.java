@@ -0,0 +1,155 @@
+package com.verto.inventory.repository;
+
+import com.verto.inventory.dto.StockLevel;
+import com.verto.inventory.entity.Product;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+
+class PartitionAwareProductRepositoryImpl implements PartitionAwareProductRepository {
+
+    private static final String LOW_STOCK_QUERY =
+            "SELECT p FROM Product p WHERE p.stockQuantity < p.lowStockThreshold";
+    private static final String IDS_AFTER_QUERY =
+            "SELECT p.id FROM Product p WHERE p.id > :afterId ORDER BY p.id";
+    private static final String STOCK_LEVELS_BETWEEN_QUERY =
+            "SELECT new com.verto.inventory.dto.StockLevel(p.id, p.name, p.stockQuantity, p.lowStockThreshold) "
+                    + "FROM Product p WHERE p.id BETWEEN :fromId AND :toId ORDER BY p.id";
+    private static final String STOCK_LEVELS_QUERY =
+            "SELECT new com.verto.inventory.dto.StockLevel(p.id, p.name, p.stockQuantity, p.lowStockThreshold) "
+                    + "FROM Product p WHERE p.id IN :ids ORDER BY p.id";
+    private static final String DECREASE_IF_AVAILABLE_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ? WHERE id = ? AND stock_quantity >= ?";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final SimpleJpaRepository<Product, Long> unpartitioned;
+    private final PartitionedProductStore partitioned;
+
+    PartitionAwareProductRepositoryImpl(EntityManager entityManager, JdbcTemplate jdbcTemplate,
+                                        ObjectProvider<PartitionedProductStore> partitionedProductStore) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.unpartitioned = new SimpleJpaRepository<>(Product.class, entityManager);
+        this.partitioned = partitionedProductStore.getIfAvailable();
+    }
+
+    @Override
+    public Optional<Product> findById(Long id) {
+        return partitioned != null ? partitioned.findById(id, false) : unpartitioned.findById(id);
+    }
+
+    @Override
+    public Optional<Product> findByIdForUpdate(Long id) {
+        if (partitioned != null) {
+            return partitioned.findById(id, true);
+        }
+        return Optional.ofNullable(entityManager.find(Product.class, id, LockModeType.PESSIMISTIC_WRITE));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return partitioned != null ? partitioned.existsById(id) : unpartitioned.existsById(id);
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return partitioned != null ? partitioned.findAll() : unpartitioned.findAll();
+    }
+
+    @Override
+    @Transactional
+    public <S extends Product> S save(S product) {
+        return partitioned != null ? partitioned.save(product) : unpartitioned.save(product);
+    }
+
+    @Override
+    @Transactional
+    public <S extends Product> List<S> saveAll(Iterable<S> products) {
+        List<S> saved = new ArrayList<>();
+        for (S product : products) {
+            saved.add(save(product));
+        }
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void deleteById(Long id) {
+        if (partitioned != null) {
+            partitioned.deleteById(id);
+        } else {
+            unpartitioned.deleteById(id);
+        }
+    }
+
+    @Override
+    public List<Product> findLowStockProducts() {
+        if (partitioned != null) {
+            return partitioned.findLowStock();
+        }
+        return entityManager.createQuery(LOW_STOCK_QUERY, Product.class).getResultList();
+    }
+
+    @Override
+    public List<Long> findIdsAfter(Long afterId, Pageable pageable) {
+        if (partitioned != null) {
+            return partitioned.findIdsAfter(afterId, pageable.getPageSize());
+        }
+        return entityManager.createQuery(IDS_AFTER_QUERY, Long.class)
+                .setParameter("afterId", afterId)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public List<StockLevel> findStockLevelsBetween(Long fromId, Long toId) {
+        if (partitioned != null) {
+            return partitioned.findStockLevelsBetween(fromId, toId);
+        }
+        return entityManager.createQuery(STOCK_LEVELS_BETWEEN_QUERY, StockLevel.class)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .getResultList();
+    }
+
+    @Override
+    public List<StockLevel> findStockLevels(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (partitioned != null) {
+            return partitioned.findStockLevels(ids);
+        }
+        return entityManager.createQuery(STOCK_LEVELS_QUERY, StockLevel.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public List<Long> decreaseStockIfAvailable(SortedMap<Long, Integer> quantities) {
+        if (partitioned != null) {
+            return partitioned.decreaseStockIfAvailable(quantities);
+        }
+        List<Long> ids = new ArrayList<>(quantities.size());
+        List<Object[]> rows = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            ids.add(line.getKey());
+            rows.add(new Object[]{line.getValue(), line.getKey(), line.getValue()});
+        }
+        return PartitionedProductStore.unchanged(ids, jdbcTemplate.batchUpdate(DECREASE_IF_AVAILABLE_SQL, rows));
+    }
+}
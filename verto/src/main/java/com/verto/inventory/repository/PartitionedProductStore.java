@@ -0,0 +1,288 @@
+package com.verto.inventory.repository;
+
+import com.verto.inventory.dto.StockLevel;
+import com.verto.inventory.entity.Product;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Products stored across {@code products_p0 .. products_p<n-1>}, with the row for id
+ * {@code i} in partition {@code i mod n}. Point lookups and writes touch one partition;
+ * list, low-stock and range queries run against every partition and merge the
+ * id-ordered results.
+ *
+ * Ids come from a counter per partition rather than one IDENTITY column, so concurrent
+ * inserts spread over {@code n} counter rows.
+ */
+public class PartitionedProductStore {
+
+    private static final String COLUMNS = "id, name, description, stock_quantity, low_stock_threshold";
+
+    private static final RowMapper<Product> PRODUCT_ROW = (resultSet, rowNum) -> new Product(
+            resultSet.getLong("id"),
+            resultSet.getString("name"),
+            resultSet.getString("description"),
+            resultSet.getInt("stock_quantity"),
+            resultSet.getInt("low_stock_threshold"));
+
+    private static final RowMapper<StockLevel> STOCK_LEVEL_ROW = (resultSet, rowNum) -> new StockLevel(
+            resultSet.getLong("id"),
+            resultSet.getString("name"),
+            resultSet.getInt("stock_quantity"),
+            resultSet.getInt("low_stock_threshold"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int partitions;
+    private final ExecutorService fanOut;
+
+    public PartitionedProductStore(JdbcTemplate jdbcTemplate, int partitions, int fanOutThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitions = partitions;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.fanOut = Executors.newFixedThreadPool(fanOutThreads, runnable -> {
+            Thread thread = new Thread(runnable, "product-partition-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void verifyLayout() {
+        Integer created = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_partition_ids", Integer.class);
+        if (created == null || created != partitions) {
+            throw new IllegalStateException("inventory.partitioning.partitions is " + partitions
+                    + " but the schema was migrated for " + created + " partitions");
+        }
+        Integer unpartitioned = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class);
+        if (unpartitioned != null && unpartitioned > 0) {
+            // Rows are only moved by ProductPartitionMigration, so it has not run for this layout.
+            throw new IllegalStateException("The products table holds " + unpartitioned
+                    + " rows; run the Flyway migrations with inventory.partitioning.enabled=true");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOut.shutdownNow();
+    }
+
+    public int partitionOf(long id) {
+        return (int) Math.floorMod(id, (long) partitions);
+    }
+
+    public Optional<Product> findById(long id, boolean forUpdate) {
+        String sql = "SELECT " + COLUMNS + " FROM " + tableFor(id) + " WHERE id = ?" + (forUpdate ? " FOR UPDATE" : "");
+        return jdbcTemplate.query(sql, PRODUCT_ROW, id).stream().findFirst();
+    }
+
+    public boolean existsById(long id) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tableFor(id) + " WHERE id = ?", Integer.class, id);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Must run inside a transaction, so the id counter increment and the insert commit
+     * together.
+     */
+    public <S extends Product> S save(S product) {
+        if (product.getStockQuantity() < 0) {
+            throw new IllegalArgumentException("Stock quantity cannot be negative");
+        }
+        if (product.getId() != null && update(product) > 0) {
+            return product;
+        }
+        int partition = ThreadLocalRandom.current().nextInt(partitions);
+        long id = nextId(partition);
+        jdbcTemplate.update("INSERT INTO " + table(partition) + " (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?)",
+                id, product.getName(), product.getDescription(), product.getStockQuantity(), product.getLowStockThreshold());
+        product.setId(id);
+        return product;
+    }
+
+    public void deleteById(long id) {
+        if (jdbcTemplate.update("DELETE FROM " + tableFor(id) + " WHERE id = ?", id) == 0) {
+            throw new EmptyResultDataAccessException(
+                    String.format("No %s entity with id %d exists!", Product.class, id), 1);
+        }
+    }
+
+    public List<Product> findAll() {
+        return fanOut(table -> jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM " + table + " ORDER BY id", PRODUCT_ROW), Product::getId);
+    }
+
+    public List<Product> findLowStock() {
+        return fanOut(table -> jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM " + table + " WHERE stock_quantity < low_stock_threshold ORDER BY id",
+                PRODUCT_ROW), Product::getId);
+    }
+
+    public List<Long> findIdsAfter(long afterId, int limit) {
+        List<Long> ids = fanOut(table -> jdbcTemplate.queryForList(
+                "SELECT id FROM " + table + " WHERE id > ? ORDER BY id LIMIT ?", Long.class, afterId, limit), Long::longValue);
+        return ids.size() > limit ? new ArrayList<>(ids.subList(0, limit)) : ids;
+    }
+
+    public List<StockLevel> findStockLevelsBetween(long fromId, long toId) {
+        return fanOut(table -> jdbcTemplate.query(
+                "SELECT id, name, stock_quantity, low_stock_threshold FROM " + table
+                        + " WHERE id BETWEEN ? AND ? ORDER BY id", STOCK_LEVEL_ROW, fromId, toId), StockLevel::getId);
+    }
+
+    /**
+     * Queries only the partitions that hold one of {@code ids}.
+     */
+    public List<StockLevel> findStockLevels(Collection<Long> ids) {
+        Map<Integer, List<Long>> idsByPartition = new TreeMap<>();
+        for (Long id : ids) {
+            idsByPartition.computeIfAbsent(partitionOf(id), partition -> new ArrayList<>()).add(id);
+        }
+        List<List<StockLevel>> results = new ArrayList<>(idsByPartition.size());
+        idsByPartition.forEach((partition, partitionIds) -> results.add(jdbcTemplate.query(
+                "SELECT id, name, stock_quantity, low_stock_threshold FROM " + table(partition)
+                        + " WHERE id IN (" + String.join(", ", Collections.nCopies(partitionIds.size(), "?"))
+                        + ") ORDER BY id", STOCK_LEVEL_ROW, partitionIds.toArray())));
+        return mergeById(results, StockLevel::getId);
+    }
+
+    public List<Long> decreaseStockIfAvailable(SortedMap<Long, Integer> quantities) {
+        List<Long> ids = new ArrayList<>(quantities.size());
+        String[] updates = new String[quantities.size()];
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            long id = line.getKey();
+            int quantity = line.getValue();
+            // Lines target different tables, so they cannot share a prepared statement;
+            // only numbers are inlined, which keeps them in a single batch.
+            updates[ids.size()] = "UPDATE " + tableFor(id) + " SET stock_quantity = stock_quantity - " + quantity
+                    + " WHERE id = " + id + " AND stock_quantity >= " + quantity;
+            ids.add(id);
+        }
+        return unchanged(ids, jdbcTemplate.batchUpdate(updates));
+    }
+
+    static List<Long> unchanged(List<Long> ids, int[] updateCounts) {
+        List<Long> unchanged = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            // One row per id, so anything else (including "no info") is not a confirmed decrease.
+            if (updateCounts[i] != 1) {
+                unchanged.add(ids.get(i));
+            }
+        }
+        return unchanged;
+    }
+
+    private int update(Product product) {
+        return jdbcTemplate.update("UPDATE " + tableFor(product.getId())
+                        + " SET name = ?, description = ?, stock_quantity = ?, low_stock_threshold = ? WHERE id = ?",
+                product.getName(), product.getDescription(), product.getStockQuantity(),
+                product.getLowStockThreshold(), product.getId());
+    }
+
+    private long nextId(int partition) {
+        jdbcTemplate.update("UPDATE product_partition_ids SET next_id = next_id + ? WHERE partition_no = ?",
+                partitions, partition);
+        return jdbcTemplate.queryForObject("SELECT next_id - ? FROM product_partition_ids WHERE partition_no = ?",
+                Long.class, partitions, partition);
+    }
+
+    private <T> List<T> fanOut(Function<String, List<T>> query, ToLongFunction<T> id) {
+        List<List<T>> results = new ArrayList<>(partitions);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Stay on the caller's connection: parallel queries would each need another
+            // pooled connection and would not see the transaction's own writes.
+            for (int partition = 0; partition < partitions; partition++) {
+                results.add(query.apply(table(partition)));
+            }
+            return mergeById(results, id);
+        }
+
+        List<CompletableFuture<List<T>>> queries = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            String table = table(partition);
+            queries.add(CompletableFuture.supplyAsync(() -> query.apply(table), fanOut));
+        }
+        try {
+            for (CompletableFuture<List<T>> partitionQuery : queries) {
+                results.add(partitionQuery.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return mergeById(results, id);
+    }
+
+    static <T> List<T> mergeById(List<List<T>> sortedPartitions, ToLongFunction<T> id) {
+        Comparator<Cursor<T>> byId = Comparator.comparingLong(cursor -> id.applyAsLong(cursor.current));
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(Math.max(1, sortedPartitions.size()), byId);
+        int total = 0;
+        for (List<T> partition : sortedPartitions) {
+            total += partition.size();
+            Cursor<T> cursor = new Cursor<>(partition.iterator());
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        List<T> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            Cursor<T> cursor = heads.poll();
+            merged.add(cursor.current);
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private String tableFor(long id) {
+        return table(partitionOf(id));
+    }
+
+    private static String table(int partition) {
+        return "products_p" + partition;
+    }
+
+    private static final class Cursor<T> {
+
+        private final Iterator<T> remaining;
+        private T current;
+
+        Cursor(Iterator<T> remaining) {
+            this.remaining = remaining;
+        }
+
+        boolean advance() {
+            if (!remaining.hasNext()) {
+                return false;
+            }
+            current = remaining.next();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.verto.inventory.repository;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Repeatable migration that lays the product rows out for the configured partitioning:
+ * either everything in {@code products}, or row {@code id} in {@code products_p<id mod n>}.
+ *
+ * Its checksum is the target layout, so Flyway runs it again whenever partitioning is
+ * switched on or off or the partition count changes. Each run creates the missing
+ * partition tables, moves every row that sits in the wrong table, drops partition tables
+ * the layout no longer uses and restarts the id counters past the largest id.
+ */
+public class ProductPartitionMigration implements JavaMigration {
+
+    private static final String COLUMNS = "id, name, description, stock_quantity, low_stock_threshold";
+    private static final Pattern PARTITION_TABLE = Pattern.compile("products_p(\\d+)");
+
+    // 0 when products are not partitioned.
+    private final int partitions;
+
+    public ProductPartitionMigration(boolean enabled, int partitions) {
+        if (enabled && partitions < 1) {
+            throw new IllegalArgumentException("partitions must be positive: " + partitions);
+        }
+        this.partitions = enabled ? partitions : 0;
+    }
+
+    @Override
+    public MigrationVersion getVersion() {
+        return null;
+    }
+
+    @Override
+    public String getDescription() {
+        return "ProductPartitions";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return partitions;
+    }
+
+    @Override
+    public boolean isUndo() {
+        return false;
+    }
+
+    @Override
+    public boolean isBaselineMigration() {
+        return false;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        List<Integer> existing = existingPartitions(connection);
+        long maxId;
+
+        try (Statement statement = connection.createStatement()) {
+            for (int partition = 0; partition < partitions; partition++) {
+                statement.execute(createPartitionTable(partition));
+            }
+
+            List<String> sources = new ArrayList<>();
+            sources.add("products");
+            existing.forEach(partition -> sources.add(tableOf(partition)));
+            for (String source : sources) {
+                moveMisplacedRows(statement, source);
+            }
+
+            for (int partition : existing) {
+                if (partition >= partitions) {
+                    statement.execute("DROP TABLE " + tableOf(partition));
+                }
+            }
+
+            maxId = maxId(statement);
+            statement.execute("DELETE FROM product_partition_ids");
+            if (partitions == 0) {
+                restartIdentity(connection, statement, maxId + 1);
+            }
+        }
+
+        // Partition p hands out ids congruent to p mod partitions, so id mod partitions
+        // always names the partition holding the row.
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO product_partition_ids (partition_no, next_id) VALUES (?, ?)")) {
+            long next = maxId + 1;
+            for (int partition = 0; partition < partitions; partition++) {
+                insert.setInt(1, partition);
+                insert.setLong(2, next + Math.floorMod(partition - next, (long) partitions));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void moveMisplacedRows(Statement statement, String source) throws SQLException {
+        try (ResultSet rows = statement.executeQuery("SELECT 1 FROM " + source + " LIMIT 1")) {
+            if (!rows.next()) {
+                return;
+            }
+        }
+        if (partitions == 0) {
+            if (!source.equals("products")) {
+                statement.execute("INSERT INTO products (" + COLUMNS + ") SELECT " + COLUMNS + " FROM " + source);
+                statement.execute("DELETE FROM " + source);
+            }
+            return;
+        }
+        for (int partition = 0; partition < partitions; partition++) {
+            String target = tableOf(partition);
+            if (!target.equals(source)) {
+                statement.execute("INSERT INTO " + target + " (" + COLUMNS + ") SELECT " + COLUMNS
+                        + " FROM " + source + " WHERE MOD(id, " + partitions + ") = " + partition);
+            }
+        }
+        Matcher matcher = PARTITION_TABLE.matcher(source);
+        if (matcher.matches() && Integer.parseInt(matcher.group(1)) < partitions) {
+            statement.execute("DELETE FROM " + source
+                    + " WHERE MOD(id, " + partitions + ") <> " + matcher.group(1));
+        } else {
+            statement.execute("DELETE FROM " + source);
+        }
+    }
+
+    private long maxId(Statement statement) throws SQLException {
+        if (partitions == 0) {
+            return maxId(statement, "products");
+        }
+        long max = 0;
+        for (int partition = 0; partition < partitions; partition++) {
+            max = Math.max(max, maxId(statement, tableOf(partition)));
+        }
+        return max;
+    }
+
+    private static long maxId(Statement statement, String table) throws SQLException {
+        try (ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static void restartIdentity(Connection connection, Statement statement, long next) throws SQLException {
+        String database = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+        if (database.contains("h2")) {
+            statement.execute("ALTER TABLE products ALTER COLUMN id RESTART WITH " + next);
+        } else {
+            statement.execute("ALTER TABLE products AUTO_INCREMENT = " + next);
+        }
+    }
+
+    private static List<Integer> existingPartitions(Connection connection) throws SQLException {
+        List<Integer> partitions = new ArrayList<>();
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet tables = metaData.getTables(connection.getCatalog(), connection.getSchema(),
+                "products_p%", null)) {
+            while (tables.next()) {
+                Matcher matcher = PARTITION_TABLE.matcher(tables.getString("TABLE_NAME").toLowerCase(Locale.ROOT));
+                if (matcher.matches()) {
+                    partitions.add(Integer.parseInt(matcher.group(1)));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private static String tableOf(int partition) {
+        return "products_p" + partition;
+    }
+
+    private static String createPartitionTable(int partition) {
+        String table = tableOf(partition);
+        return "CREATE TABLE IF NOT EXISTS " + table + " ("
+                + "id BIGINT PRIMARY KEY, "
+                + "name VARCHAR(255) NOT NULL, "
+                + "description TEXT, "
+                + "stock_quantity INT NOT NULL DEFAULT 0, "
+                + "low_stock_threshold INT NOT NULL DEFAULT 5, "
+                + "CONSTRAINT chk_" + table + "_stock_quantity CHECK (stock_quantity >= 0), "
+                + "CONSTRAINT chk_" + table + "_low_stock_threshold CHECK (low_stock_threshold >= 0))";
+    }
+}
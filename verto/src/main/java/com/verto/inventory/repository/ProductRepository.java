@@ -1,15 +1,13 @@
 package com.verto.inventory.repository;
 
 import com.verto.inventory.entity.Product;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
+/**
+ * Only exposes {@link PartitionAwareProductRepository}, so every method follows the
+ * partitioned layout when it is enabled and none can read the unpartitioned table.
+ */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-
-    @Query("SELECT p FROM Product p WHERE p.stockQuantity < p.lowStockThreshold")
-    List<Product> findLowStockProducts();
+public interface ProductRepository
+        extends org.springframework.data.repository.Repository<Product, Long>, PartitionAwareProductRepository {
 }
@@ -1,77 +1,216 @@
 package com.verto.inventory.service;
 
+import com.verto.inventory.cache.CacheInvalidationBus;
+import com.verto.inventory.cache.ProductCache;
+import com.verto.inventory.dto.AllocationRequest;
+import com.verto.inventory.dto.AllocationResult;
+import com.verto.inventory.dto.HistoryResolution;
+import com.verto.inventory.dto.StockHistory;
+import com.verto.inventory.dto.StockLevel;
+import com.verto.inventory.dto.StockResult;
 import com.verto.inventory.dto.StockUpdateRequest;
 import com.verto.inventory.entity.Product;
+import com.verto.inventory.exception.InsufficientStockException;
+import com.verto.inventory.exception.ProductNotFoundException;
 import com.verto.inventory.repository.ProductRepository;
+import com.verto.inventory.util.SingleFlight;
+import com.verto.inventory.util.TransactionCallbacks;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ProductService {
 
+    private static final Duration LOOKUP_MAX_WAIT = Duration.ofSeconds(2);
+
     private final ProductRepository productRepository;
+    private final StockHistoryStore stockHistoryStore;
+    private final ProductCache productCache;
+    private final CacheInvalidationBus invalidationBus;
+
+    private final SingleFlight<Long, Optional<Product>> productLookups = new SingleFlight<>(LOOKUP_MAX_WAIT);
 
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        recordStockMove(saved.getId(), saved.getStockQuantity(), 0);
+        return saved;
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Runs outside a transaction so that, with partitioning enabled, the partitions are
+     * queried in parallel.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Served from the node-local cache when possible. Concurrent misses for the same id
+     * share one repository call, which runs outside any transaction, and each caller in
+     * a burst receives its own copy of the row. Writes evict the entry and detach the
+     * in-flight lookup once they commit, so a lookup started after a write never joins
+     * one that may have read the previous state; other nodes evict via the invalidation
+     * bus.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        Product cached = productCache.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        // Every caller in a burst shares the loaded row, so each gets its own copy.
+        return productLookups.execute(id, () -> {
+            long version = productCache.version(id);
+            Optional<Product> product = productRepository.findById(id);
+            product.ifPresent(found -> productCache.putIfUnchanged(id, found, version));
+            return product;
+        }).map(Product::copy);
     }
 
     public Product updateProduct(Long id, Product productDetails) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        Product product = productRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ProductNotFoundException(id));
         
         product.setName(productDetails.getName());
         product.setDescription(productDetails.getDescription());
         product.setLowStockThreshold(productDetails.getLowStockThreshold());
         
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        TransactionCallbacks.afterCommit(() -> evict(id));
+        return saved;
     }
 
     public void deleteProduct(Long id) {
         if (!productRepository.existsById(id)) {
-            throw new RuntimeException("Product not found with id: " + id);
+            throw new ProductNotFoundException(id);
         }
         productRepository.deleteById(id);
+        stockHistoryStore.remove(id);
+        TransactionCallbacks.afterCommit(() -> evict(id));
     }
 
     public Product increaseStock(Long id, StockUpdateRequest request) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        Product product = productRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ProductNotFoundException(id));
         
         product.setStockQuantity(product.getStockQuantity() + request.getQuantity());
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        recordStockMove(id, request.getQuantity(), 0);
+        return saved;
     }
 
     public Product decreaseStock(Long id, StockUpdateRequest request) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
-        
+        StockResult result = tryDecreaseStock(id, request);
+        switch (result.getStatus()) {
+            case NOT_FOUND:
+                throw new ProductNotFoundException(id);
+            case INSUFFICIENT_STOCK:
+                throw new InsufficientStockException(id, result.getAvailableQuantity(), request.getQuantity());
+            default:
+                return result.getProduct();
+        }
+    }
+
+    /**
+     * Like {@link #decreaseStock}, but reports a missing product or insufficient stock
+     * in the result instead of throwing.
+     */
+    public StockResult tryDecreaseStock(Long id, StockUpdateRequest request) {
+        Optional<Product> found = productRepository.findByIdForUpdate(id);
+        if (found.isEmpty()) {
+            return StockResult.notFound();
+        }
+        Product product = found.get();
         int newStock = product.getStockQuantity() - request.getQuantity();
         if (newStock < 0) {
-            throw new IllegalArgumentException("Cannot decrease stock below zero. Current stock: " + product.getStockQuantity());
+            return StockResult.insufficientStock(product.getStockQuantity());
         }
-        
+
         product.setStockQuantity(newStock);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        recordStockMove(id, 0, request.getQuantity());
+        return StockResult.ok(saved);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Decreases stock for every line of an order, or for none of them. Lines for the same
+     * product are combined. The conditional updates run in ascending product id order, so
+     * concurrent orders lock shared products in the same order and cannot deadlock.
+     */
+    public AllocationResult allocate(AllocationRequest request) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (AllocationRequest.Line line : request.getLines()) {
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+
+        Set<Long> unchanged = new HashSet<>(productRepository.decreaseStockIfAvailable(quantities));
+        Map<Long, Integer> stockLevels = new HashMap<>();
+        for (StockLevel level : productRepository.findStockLevels(quantities.keySet())) {
+            stockLevels.put(level.getId(), level.getStockQuantity());
+        }
+
+        boolean allocated = unchanged.isEmpty();
+        List<AllocationResult.Line> lines = new ArrayList<>(quantities.size());
+        quantities.forEach((id, quantity) -> {
+            Integer stock = stockLevels.get(id);
+            if (allocated) {
+                lines.add(new AllocationResult.Line(id, quantity, stock, 0, AllocationResult.LineStatus.ALLOCATED));
+            } else if (stock == null) {
+                lines.add(new AllocationResult.Line(id, quantity, 0, quantity, AllocationResult.LineStatus.NOT_FOUND));
+            } else if (unchanged.contains(id)) {
+                lines.add(new AllocationResult.Line(id, quantity, stock, quantity - stock,
+                        AllocationResult.LineStatus.INSUFFICIENT_STOCK));
+            } else {
+                // Read after this line's decrement, which the rollback undoes.
+                lines.add(new AllocationResult.Line(id, quantity, stock + quantity, 0,
+                        AllocationResult.LineStatus.AVAILABLE));
+            }
+        });
+
+        if (!allocated) {
+            TransactionCallbacks.rollbackOnly();
+            return new AllocationResult(false, lines);
+        }
+        quantities.forEach((id, quantity) -> recordStockMove(id, 0, quantity));
+        return new AllocationResult(true, lines);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Product> getLowStockProducts() {
         return productRepository.findLowStockProducts();
     }
+
+    @Transactional(readOnly = true)
+    public Optional<StockHistory> getStockHistory(Long id, HistoryResolution resolution) {
+        return productRepository.findById(id)
+                .map(product -> stockHistoryStore.getHistory(id, resolution, product.getStockQuantity()));
+    }
+
+    private void recordStockMove(Long id, int increased, int decreased) {
+        // Shared by every node, and committed or rolled back with the stock change.
+        stockHistoryStore.record(id, increased, decreased);
+        TransactionCallbacks.afterCommit(() -> evict(id));
+    }
+
+    private void evict(Long id) {
+        productCache.invalidate(id);
+        productLookups.forget(id);
+        invalidationBus.publish(id);
+    }
 }
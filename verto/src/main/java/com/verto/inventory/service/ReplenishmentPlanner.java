@@ -0,0 +1,198 @@
+package com.verto.inventory.service;
+
+import com.verto.inventory.config.ReplenishmentProperties;
+import com.verto.inventory.dto.ReplenishmentSuggestion;
+import com.verto.inventory.dto.StockLevel;
+import com.verto.inventory.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Periodically walks the catalog in id-ordered chunks and suggests purchases for
+ * products that are below their low stock threshold, or will be once the recent sales
+ * velocity (from {@link StockHistoryStore}) has run for the configured lead time.
+ * The velocity comes from the shared history table, so it covers stock moves made on
+ * every node, and is read once per chunk.
+ *
+ * The scanning thread only reads chunk boundaries (ids); the rows of each chunk are
+ * loaded and evaluated on a small worker pool. At most two chunks per worker are
+ * queued at a time and only the most urgent {@code maxSuggestions} results are kept,
+ * so memory stays bounded regardless of catalog size.
+ */
+@Slf4j
+@Service
+public class ReplenishmentPlanner {
+
+    private static final Comparator<ReplenishmentSuggestion> MOST_URGENT_FIRST = Comparator
+            .comparing((ReplenishmentSuggestion s) -> s.getStockQuantity() >= s.getLowStockThreshold())
+            .thenComparing(ReplenishmentSuggestion::getDaysOfCover, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(s -> s.getStockQuantity() - s.getLowStockThreshold())
+            .thenComparing(ReplenishmentSuggestion::getProductId);
+
+    private final ProductRepository productRepository;
+    private final StockHistoryStore stockHistoryStore;
+    private final ReplenishmentProperties properties;
+    private final ExecutorService workers;
+
+    private volatile List<ReplenishmentSuggestion> suggestions = Collections.emptyList();
+
+    public ReplenishmentPlanner(ProductRepository productRepository,
+                                StockHistoryStore stockHistoryStore,
+                                ReplenishmentProperties properties) {
+        this.productRepository = productRepository;
+        this.stockHistoryStore = stockHistoryStore;
+        this.properties = properties;
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(properties.getWorkers(), runnable -> {
+            Thread thread = new Thread(runnable, "replenishment-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(initialDelayString = "${inventory.replenishment.initial-delay:PT1M}",
+            fixedDelayString = "${inventory.replenishment.scan-interval:PT5M}")
+    public void scheduledScan() {
+        if (properties.isEnabled()) {
+            scan();
+        }
+    }
+
+    public List<ReplenishmentSuggestion> getSuggestions() {
+        return suggestions;
+    }
+
+    public synchronized List<ReplenishmentSuggestion> scan() {
+        long startedAt = System.nanoTime();
+        TopSuggestions top = new TopSuggestions(properties.getMaxSuggestions());
+        Semaphore queuedChunks = new Semaphore(properties.getWorkers() * 2);
+        Phaser chunks = new Phaser(1);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        int chunkCount = 0;
+
+        try {
+            Long afterId = Long.MIN_VALUE;
+            while (failure.get() == null) {
+                List<Long> ids = productRepository.findIdsAfter(afterId, PageRequest.of(0, properties.getChunkSize()));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                Long fromId = ids.get(0);
+                Long toId = ids.get(ids.size() - 1);
+
+                queuedChunks.acquire();
+                chunks.register();
+                chunkCount++;
+                try {
+                    workers.execute(() -> {
+                        try {
+                            Map<Long, Double> velocity = stockHistoryStore.unitsPerDayBetween(fromId, toId);
+                            for (StockLevel level : productRepository.findStockLevelsBetween(fromId, toId)) {
+                                ReplenishmentSuggestion suggestion = evaluate(level,
+                                        velocity.getOrDefault(level.getId(), 0.0));
+                                if (suggestion != null) {
+                                    top.offer(suggestion);
+                                }
+                            }
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            queuedChunks.release();
+                            chunks.arriveAndDeregister();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    // The chunk never ran, so nothing else will hand back its permit or
+                    // party and the wait below would never end.
+                    queuedChunks.release();
+                    chunks.arriveAndDeregister();
+                    throw e;
+                }
+
+                if (ids.size() < properties.getChunkSize()) {
+                    break;
+                }
+                afterId = toId;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, new IllegalStateException("Replenishment scan interrupted", e));
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        }
+        chunks.arriveAndAwaitAdvance();
+
+        if (failure.get() != null) {
+            log.warn("Replenishment scan failed, keeping previous suggestions", failure.get());
+            return suggestions;
+        }
+        suggestions = top.toSortedList();
+        log.debug("Replenishment scan of {} chunk(s) produced {} suggestion(s) in {} ms",
+                chunkCount, suggestions.size(), (System.nanoTime() - startedAt) / 1_000_000);
+        return suggestions;
+    }
+
+    ReplenishmentSuggestion evaluate(StockLevel level, double unitsPerDay) {
+        int stock = level.getStockQuantity();
+        int threshold = level.getLowStockThreshold();
+        int leadTimeDemand = (int) Math.ceil(unitsPerDay * properties.getLeadTimeDays());
+
+        if (stock - leadTimeDemand >= threshold) {
+            return null;
+        }
+
+        int reorderQuantity = properties.getReorderQuantities()
+                .getOrDefault(level.getId(), properties.getDefaultReorderQuantity());
+        int quantity = Math.max(reorderQuantity, threshold + leadTimeDemand - stock);
+        Double daysOfCover = unitsPerDay > 0 ? stock / unitsPerDay : null;
+        return new ReplenishmentSuggestion(level.getId(), level.getName(), stock, threshold,
+                unitsPerDay, daysOfCover, quantity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private static final class TopSuggestions {
+
+        private final int capacity;
+        private final PriorityQueue<ReplenishmentSuggestion> leastUrgentFirst;
+
+        TopSuggestions(int capacity) {
+            this.capacity = capacity;
+            this.leastUrgentFirst = new PriorityQueue<>(MOST_URGENT_FIRST.reversed());
+        }
+
+        synchronized void offer(ReplenishmentSuggestion suggestion) {
+            if (leastUrgentFirst.size() < capacity) {
+                leastUrgentFirst.offer(suggestion);
+            } else if (MOST_URGENT_FIRST.compare(suggestion, leastUrgentFirst.peek()) < 0) {
+                leastUrgentFirst.poll();
+                leastUrgentFirst.offer(suggestion);
+            }
+        }
+
+        synchronized List<ReplenishmentSuggestion> toSortedList() {
+            List<ReplenishmentSuggestion> sorted = new ArrayList<>(leastUrgentFirst);
+            sorted.sort(MOST_URGENT_FIRST);
+            return Collections.unmodifiableList(sorted);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.verto.inventory.service;
+
+import com.verto.inventory.config.StockHistoryProperties;
+import com.verto.inventory.dto.HistoryResolution;
+import com.verto.inventory.dto.StockHistory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Stock history per product, downsampled into minute, hour and day buckets and kept in
+ * the {@code stock_history} table, so every node records into and reads the same series.
+ *
+ * Moves are recorded in the transaction that changes the stock, as two counters per
+ * bucket: units added and units decreased. Sums do not depend on the order in which
+ * transactions commit, and levels are not stored at all: they are rebuilt backwards
+ * from the product's current stock when history is read. Each resolution keeps its
+ * configured number of buckets; older ones, and series idle for the whole day ring,
+ * are pruned.
+ */
+@Component
+public class StockHistoryStore {
+
+    private static final HistoryResolution[] RESOLUTIONS = HistoryResolution.values();
+    private static final double MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+
+    private static final String RECORD_SQL =
+            "INSERT INTO stock_history (product_id, resolution, bucket, increased, decreased) VALUES (?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE increased = increased + VALUES(increased), "
+                    + "decreased = decreased + VALUES(decreased)";
+    private static final String RECORD_SERIES_SQL =
+            "INSERT INTO stock_history_series (product_id, first_recorded_at, last_recorded_at) VALUES (?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE last_recorded_at = GREATEST(last_recorded_at, VALUES(last_recorded_at))";
+    private static final String FIRST_RECORDED_SQL =
+            "SELECT first_recorded_at FROM stock_history_series WHERE product_id = ?";
+    private static final String BUCKETS_SQL =
+            "SELECT bucket, increased, decreased FROM stock_history "
+                    + "WHERE product_id = ? AND resolution = ? AND bucket > ? AND bucket <= ?";
+    private static final String DECREASED_BETWEEN_SQL =
+            "SELECT product_id, SUM(decreased) FROM stock_history "
+                    + "WHERE product_id BETWEEN ? AND ? AND resolution = ? AND bucket > ? AND bucket <= ? "
+                    + "GROUP BY product_id";
+    private static final String PRUNE_SQL = "DELETE FROM stock_history WHERE resolution = ? AND bucket <= ?";
+    private static final String PRUNE_SERIES_SQL = "DELETE FROM stock_history_series WHERE last_recorded_at <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int[] slots;
+    private final LongSupplier clock;
+
+    @Autowired
+    public StockHistoryStore(JdbcTemplate jdbcTemplate, StockHistoryProperties properties) {
+        this(jdbcTemplate, properties.getMinuteSlots(), properties.getHourSlots(), properties.getDaySlots(),
+                System::currentTimeMillis);
+    }
+
+    StockHistoryStore(JdbcTemplate jdbcTemplate, int minuteSlots, int hourSlots, int daySlots, LongSupplier clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.slots = new int[]{minuteSlots, hourSlots, daySlots};
+        this.clock = clock;
+    }
+
+    /**
+     * Joins the caller's transaction, so the move is recorded only if the stock change
+     * commits.
+     */
+    public void record(Long productId, int increased, int decreased) {
+        long now = clock.getAsLong();
+        List<Object[]> buckets = new ArrayList<>(RESOLUTIONS.length);
+        for (HistoryResolution resolution : RESOLUTIONS) {
+            buckets.add(new Object[]{productId, resolution.name(), now / resolution.getBucketMillis(),
+                    increased, decreased});
+        }
+        jdbcTemplate.batchUpdate(RECORD_SQL, buckets);
+        jdbcTemplate.update(RECORD_SERIES_SQL, productId, now, now);
+    }
+
+    public void remove(Long productId) {
+        jdbcTemplate.update("DELETE FROM stock_history WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM stock_history_series WHERE product_id = ?", productId);
+    }
+
+    /**
+     * @param currentLevel the product's current stock, which earlier levels are rebuilt
+     *                     from by undoing each bucket's recorded moves
+     */
+    public StockHistory getHistory(Long productId, HistoryResolution resolution, int currentLevel) {
+        long now = clock.getAsLong();
+        int size = slots[resolution.ordinal()];
+        long bucketMillis = resolution.getBucketMillis();
+        long head = now / bucketMillis;
+
+        List<Long> firstRecorded = jdbcTemplate.queryForList(FIRST_RECORDED_SQL, Long.class, productId);
+        long first = firstRecorded.isEmpty() ? head : firstRecorded.get(0) / bucketMillis;
+        Map<Long, long[]> moves = new HashMap<>();
+        jdbcTemplate.query(BUCKETS_SQL, resultSet -> {
+            moves.put(resultSet.getLong("bucket"),
+                    new long[]{resultSet.getLong("increased"), resultSet.getLong("decreased")});
+        }, productId, resolution.name(), head - size, head);
+
+        // Walk back from the current level; a bucket's level is the one it ended with.
+        StockHistory.Point[] points = new StockHistory.Point[size];
+        long level = currentLevel;
+        for (int i = size - 1; i >= 0; i--) {
+            long bucket = head - size + 1 + i;
+            long[] move = moves.getOrDefault(bucket, new long[2]);
+            points[i] = new StockHistory.Point(Instant.ofEpochMilli(bucket * bucketMillis),
+                    bucket >= first ? Integer.valueOf((int) level) : null, (int) move[1]);
+            level += move[1] - move[0];
+        }
+        return new StockHistory(productId, resolution, Arrays.asList(points));
+    }
+
+    /**
+     * Average units decreased per day over the hour ring, for every product with an id
+     * in {@code [fromId, toId]} that had any decrease in it. Products without one are
+     * left out.
+     */
+    public Map<Long, Double> unitsPerDayBetween(long fromId, long toId) {
+        HistoryResolution resolution = HistoryResolution.HOUR;
+        int size = slots[resolution.ordinal()];
+        long head = clock.getAsLong() / resolution.getBucketMillis();
+        double window = size * resolution.getBucketMillis();
+
+        Map<Long, Double> unitsPerDay = new HashMap<>();
+        jdbcTemplate.query(DECREASED_BETWEEN_SQL, resultSet -> {
+            long decreased = resultSet.getLong(2);
+            if (decreased > 0) {
+                unitsPerDay.put(resultSet.getLong(1), decreased * MILLIS_PER_DAY / window);
+            }
+        }, fromId, toId, resolution.name(), head - size, head);
+        return unitsPerDay;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.history.prune-interval:PT1H}")
+    public void prune() {
+        long now = clock.getAsLong();
+        for (HistoryResolution resolution : RESOLUTIONS) {
+            jdbcTemplate.update(PRUNE_SQL, resolution.name(),
+                    now / resolution.getBucketMillis() - slots[resolution.ordinal()]);
+        }
+        HistoryResolution day = HistoryResolution.DAY;
+        jdbcTemplate.update(PRUNE_SERIES_SQL, now - slots[day.ordinal()] * day.getBucketMillis());
+    }
+
+    public int size() {
+        Integer series = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_history_series", Integer.class);
+        return series != null ? series : 0;
+    }
+}
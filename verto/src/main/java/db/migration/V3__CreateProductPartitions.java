@@ -0,0 +1,24 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+
+/**
+ * Creates the per-partition id counters used by the hash-partitioned product layout.
+ * The {@code products_p<n>} tables themselves, and the rows in them, are laid out by
+ * {@link com.verto.inventory.repository.ProductPartitionMigration}, which runs again
+ * whenever the partitioning settings change.
+ */
+public class V3__CreateProductPartitions extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS product_partition_ids ("
+                    + "partition_no INT PRIMARY KEY, "
+                    + "next_id BIGINT NOT NULL)");
+        }
+    }
+}
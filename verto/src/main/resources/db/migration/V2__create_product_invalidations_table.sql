@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS product_invalidations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    origin_node VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+CREATE INDEX idx_product_invalidations_created_at ON product_invalidations (created_at);
@@ -0,0 +1,18 @@
+CREATE TABLE IF NOT EXISTS stock_history (
+    product_id BIGINT NOT NULL,
+    resolution VARCHAR(8) NOT NULL,
+    bucket BIGINT NOT NULL,
+    increased BIGINT NOT NULL DEFAULT 0,
+    decreased BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (product_id, resolution, bucket)
+);
+
+CREATE INDEX idx_stock_history_bucket ON stock_history (resolution, bucket);
+
+CREATE TABLE IF NOT EXISTS stock_history_series (
+    product_id BIGINT PRIMARY KEY,
+    first_recorded_at BIGINT NOT NULL,
+    last_recorded_at BIGINT NOT NULL
+);
+
+CREATE INDEX idx_stock_history_series_last_recorded_at ON stock_history_series (last_recorded_at);
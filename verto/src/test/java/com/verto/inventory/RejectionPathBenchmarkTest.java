@@ -0,0 +1,265 @@
+package com.verto.inventory;
+
+import com.verto.inventory.dto.ErrorResponse;
+import com.verto.inventory.dto.StockResult;
+import com.verto.inventory.dto.StockUpdateRequest;
+import com.verto.inventory.entity.Product;
+import com.verto.inventory.exception.InsufficientStockException;
+import com.verto.inventory.repository.ProductRepository;
+import com.verto.inventory.service.ProductService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Compares the cost of rejecting a decrease for a sold-out product: the previous
+ * exception with a full stack trace and a fresh map body, a stackless domain exception,
+ * and a returned {@link StockResult}, both answered with an {@link ErrorResponse}.
+ * Rejections happen about as deep in the stack as they do inside a real request.
+ *
+ * The same comparison is then repeated end to end: decreases of a sold-out product sent
+ * through MockMvc to the real {@code /decrease} endpoint, which uses
+ * {@link ProductService#tryDecreaseStock}, and to two test-only endpoints that call
+ * {@link ProductService#decreaseStock} and let the stackless exception, or a rethrown
+ * exception with a stack trace, reach the exception handler. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rejection;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "inventory.rate-limit.enabled=false",
+        "logging.level.com.verto.inventory=WARN",
+        "logging.level.org.springframework.web=WARN"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RejectionPathBenchmarkTest {
+
+    private static final int STACK_DEPTH = 128;
+    private static final String PATH = "/products/1/decrease";
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 7;
+    private static final int REJECTIONS_PER_ROUND = 100_000;
+    private static final int REQUESTS_PER_ROUND = 2_000;
+    private static final Path REPORT = Paths.get("target", "benchmarks", "rejection.txt");
+    private static final Path ENDPOINT_REPORT = Paths.get("target", "benchmarks", "rejection-endpoint.txt");
+
+    private static volatile int sink;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void measureRejectionPathUnderSellOut() throws Exception {
+        Map<String, IntFunction<Object>> strategies = new LinkedHashMap<>();
+        strategies.put("exception-with-stack-trace", RejectionPathBenchmarkTest::rejectWithStackTrace);
+        strategies.put("stackless-exception", RejectionPathBenchmarkTest::rejectWithStacklessException);
+        strategies.put("stock-result", RejectionPathBenchmarkTest::rejectWithResult);
+
+        Map<String, double[]> measured = new LinkedHashMap<>();
+        for (Map.Entry<String, IntFunction<Object>> strategy : strategies.entrySet()) {
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                runRound(strategy.getValue());
+            }
+            double[] nanos = new double[MEASURED_ROUNDS];
+            double bytes = 0;
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                long allocatedBefore = allocatedBytes();
+                long startedAt = System.nanoTime();
+                runRound(strategy.getValue());
+                nanos[round] = (double) (System.nanoTime() - startedAt) / REJECTIONS_PER_ROUND;
+                bytes += (double) (allocatedBytes() - allocatedBefore) / REJECTIONS_PER_ROUND;
+            }
+            Arrays.sort(nanos);
+            measured.put(strategy.getKey(), new double[]{nanos[MEASURED_ROUNDS / 2], bytes / MEASURED_ROUNDS});
+        }
+
+        double baseline = measured.get("exception-with-stack-trace")[0];
+        List<String> report = new ArrayList<>();
+        report.add("stack-depth=" + STACK_DEPTH);
+        measured.forEach((name, values) -> report.add(String.format(Locale.ROOT,
+                "%s.ns-per-rejection=%.1f %s.bytes-per-rejection=%.0f %s.speedup=%.1fx",
+                name, values[0], name, values[1], name, baseline / values[0])));
+        Files.createDirectories(REPORT.getParent());
+        Files.write(REPORT, report, StandardCharsets.UTF_8);
+        report.forEach(System.out::println);
+
+        assertTrue(measured.get("stackless-exception")[0] < baseline);
+        assertTrue(measured.get("stock-result")[0] < baseline);
+    }
+
+    @Test
+    void measureSoldOutDecreaseThroughEndpoint() throws Exception {
+        Long soldOutId = productRepository.save(new Product(null, "Sold out", null, 0, 5)).getId();
+        Map<String, String> endpoints = new LinkedHashMap<>();
+        endpoints.put("exception-with-stack-trace", "/benchmark/rethrowing-decrease/" + soldOutId);
+        endpoints.put("stackless-exception", "/benchmark/throwing-decrease/" + soldOutId);
+        endpoints.put("stock-result", "/products/" + soldOutId + "/decrease");
+
+        Map<String, double[]> measured = new LinkedHashMap<>();
+        for (Map.Entry<String, String> endpoint : endpoints.entrySet()) {
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                runRequests(endpoint.getValue());
+            }
+            double[] nanos = new double[MEASURED_ROUNDS];
+            double bytes = 0;
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                long allocatedBefore = allocatedBytes();
+                long startedAt = System.nanoTime();
+                runRequests(endpoint.getValue());
+                nanos[round] = (double) (System.nanoTime() - startedAt) / REQUESTS_PER_ROUND;
+                bytes += (double) (allocatedBytes() - allocatedBefore) / REQUESTS_PER_ROUND;
+            }
+            Arrays.sort(nanos);
+            measured.put(endpoint.getKey(), new double[]{nanos[MEASURED_ROUNDS / 2], bytes / MEASURED_ROUNDS});
+        }
+
+        double baseline = measured.get("exception-with-stack-trace")[0];
+        List<String> report = new ArrayList<>();
+        measured.forEach((name, values) -> report.add(String.format(Locale.ROOT,
+                "%s.ns-per-request=%.0f %s.bytes-per-request=%.0f %s.speedup=%.2fx",
+                name, values[0], name, values[1], name, baseline / values[0])));
+        Files.createDirectories(ENDPOINT_REPORT.getParent());
+        Files.write(ENDPOINT_REPORT, report, StandardCharsets.UTF_8);
+        report.forEach(System.out::println);
+
+        assertEquals(0, productRepository.findById(soldOutId).orElseThrow().getStockQuantity());
+    }
+
+    private void runRequests(String path) throws Exception {
+        for (int i = 0; i < REQUESTS_PER_ROUND; i++) {
+            MvcResult result = mockMvc.perform(post(path)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"quantity\":1}"))
+                    .andReturn();
+            assertEquals(400, result.getResponse().getStatus(), path);
+        }
+    }
+
+    private static void runRound(IntFunction<Object> strategy) {
+        int hash = 0;
+        for (int i = 0; i < REJECTIONS_PER_ROUND; i++) {
+            hash += System.identityHashCode(strategy.apply(i & 7));
+        }
+        sink = hash;
+    }
+
+    private static Object rejectWithStackTrace(int available) {
+        try {
+            return descend(STACK_DEPTH, () -> {
+                throw new IllegalArgumentException("Cannot decrease stock below zero. Current stock: " + available);
+            });
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("timestamp", LocalDateTime.now());
+            response.put("status", 400);
+            response.put("error", "Bad Request");
+            response.put("message", e.getMessage());
+            response.put("path", PATH);
+            return response;
+        }
+    }
+
+    private static Object rejectWithStacklessException(int available) {
+        try {
+            return descend(STACK_DEPTH, () -> {
+                throw new InsufficientStockException(1L, available, 8);
+            });
+        } catch (InsufficientStockException e) {
+            return ErrorResponse.insufficientStock(e.getAvailableQuantity(), PATH);
+        }
+    }
+
+    private static Object rejectWithResult(int available) {
+        StockResult result = (StockResult) descend(STACK_DEPTH, () -> StockResult.insufficientStock(available));
+        return result.isOk() ? result.getProduct()
+                : ErrorResponse.insufficientStock(result.getAvailableQuantity(), PATH);
+    }
+
+    private static Object descend(int depth, Supplier<Object> rejection) {
+        if (depth == 0) {
+            return rejection.get();
+        }
+        Object result = descend(depth - 1, rejection);
+        return result;
+    }
+
+    /**
+     * Rejects through {@link ProductService#decreaseStock}: once letting the stackless
+     * exception reach the exception handler, and once rethrowing it with a stack trace
+     * the way rejections worked before, which the handler answers with a fresh body.
+     */
+    @TestConfiguration
+    static class ThrowingEndpoints {
+
+        @Bean
+        ThrowingDecreaseController throwingDecreaseController(ProductService productService) {
+            return new ThrowingDecreaseController(productService);
+        }
+    }
+
+    @RequestMapping("/benchmark")
+    @ResponseBody
+    static class ThrowingDecreaseController {
+
+        private final ProductService productService;
+
+        ThrowingDecreaseController(ProductService productService) {
+            this.productService = productService;
+        }
+
+        @PostMapping("/throwing-decrease/{id}")
+        Product throwingDecrease(@PathVariable Long id, @RequestBody StockUpdateRequest request) {
+            return productService.decreaseStock(id, request);
+        }
+
+        @PostMapping("/rethrowing-decrease/{id}")
+        Product rethrowingDecrease(@PathVariable Long id, @RequestBody StockUpdateRequest request) {
+            try {
+                return productService.decreaseStock(id, request);
+            } catch (InsufficientStockException e) {
+                throw new IllegalArgumentException(e.getMessage());
+            }
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
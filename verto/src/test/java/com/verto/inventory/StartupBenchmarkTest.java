@@ -0,0 +1,211 @@
+package com.verto.inventory;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application in a fresh JVM several times and reports how long it takes
+ * until the health endpoint answers (startup) and until the first product request is
+ * served (time to first request). Each variant changes one setting against the
+ * {@code validate} run, which uses the JDK's own class-data-sharing archive: sharing
+ * switched off, an application archive recorded from a training start (as the Docker
+ * image does), and {@code ddl-auto=none}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class StartupBenchmarkTest {
+
+    private static final int RUNS = 3;
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(120);
+    private static final Path REPORT = Paths.get("target", "benchmarks", "startup.txt");
+    private static final Path CDS_DIR = Paths.get("target", "benchmarks", "cds");
+    private static final Path APP_LOG = Paths.get("target", "benchmarks-startup-app.log");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    @Test
+    void measureStartupAndTimeToFirstRequest() throws Exception {
+        // Class-data sharing only archives classes from jars, so the class directories
+        // are packed into jars and every variant runs from the same classpath.
+        String classpath = jarOnlyClasspath();
+        Path classList = CDS_DIR.resolve("classes.lst");
+        Path archive = CDS_DIR.resolve("app.jsa");
+        train(classpath, classList);
+        dump(classpath, classList, archive);
+        assertTrue(Files.size(archive) > 0, "CDS archive was not written");
+
+        Map<String, List<String>> jvmOptions = new LinkedHashMap<>();
+        jvmOptions.put("validate", Collections.emptyList());
+        jvmOptions.put("no-cds", Collections.singletonList("-Xshare:off"));
+        jvmOptions.put("app-cds", Collections.singletonList("-XX:SharedArchiveFile=" + archive));
+        jvmOptions.put("ddl-auto-none", Collections.emptyList());
+        Map<String, List<String>> appArguments = new LinkedHashMap<>();
+        jvmOptions.keySet().forEach(variant -> appArguments.put(variant, Collections.emptyList()));
+        appArguments.put("ddl-auto-none", Collections.singletonList("--spring.jpa.hibernate.ddl-auto=none"));
+
+        List<String> report = new ArrayList<>();
+        report.add("runs=" + RUNS);
+        Map<String, Long> startupMedians = new LinkedHashMap<>();
+        for (String variant : jvmOptions.keySet()) {
+            long[] startup = new long[RUNS];
+            long[] firstRequest = new long[RUNS];
+            for (int run = 0; run < RUNS; run++) {
+                int port = freePort();
+                long launchedAt = System.nanoTime();
+                Process app = launch(port, classpath, jvmOptions.get(variant), appArguments.get(variant));
+                try {
+                    waitUntilUp(app, port, launchedAt);
+                    startup[run] = millisSince(launchedAt);
+
+                    HttpResponse<String> response = get(port, "/products");
+                    firstRequest[run] = millisSince(launchedAt);
+                    assertEquals(200, response.statusCode());
+                } finally {
+                    app.destroy();
+                    app.waitFor();
+                }
+            }
+            startupMedians.put(variant, median(startup));
+            report.add(variant + ".startup.ms=" + Arrays.toString(startup));
+            report.add(variant + ".startup.median.ms=" + median(startup));
+            report.add(variant + ".first-request.ms=" + Arrays.toString(firstRequest));
+            report.add(variant + ".first-request.median.ms=" + median(firstRequest));
+        }
+        long reference = startupMedians.get("validate");
+        startupMedians.forEach((variant, millis) -> report.add(String.format(Locale.ROOT,
+                "%s.startup.vs-validate=%.2fx", variant, (double) millis / reference)));
+
+        Files.createDirectories(REPORT.getParent());
+        Files.write(REPORT, report, StandardCharsets.UTF_8);
+        report.forEach(System.out::println);
+    }
+
+    /**
+     * Starts the application once with sharing off, records every class it loads up to
+     * the first product request, and stops it.
+     */
+    private void train(String classpath, Path classList) throws Exception {
+        int port = freePort();
+        long launchedAt = System.nanoTime();
+        Process app = launch(port, classpath,
+                Arrays.asList("-Xshare:off", "-XX:DumpLoadedClassList=" + classList), Collections.emptyList());
+        try {
+            waitUntilUp(app, port, launchedAt);
+            assertEquals(200, get(port, "/products").statusCode());
+        } finally {
+            app.destroy();
+            app.waitFor();
+        }
+    }
+
+    private static void dump(String classpath, Path classList, Path archive) throws Exception {
+        run(java(), "-Xshare:dump", "-XX:SharedClassListFile=" + classList,
+                "-XX:SharedArchiveFile=" + archive, "-cp", classpath);
+    }
+
+    private static String jarOnlyClasspath() throws Exception {
+        Files.createDirectories(CDS_DIR);
+        String jarTool = Paths.get(System.getProperty("java.home"), "bin", "jar").toString();
+        List<String> entries = new ArrayList<>();
+        String classpath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        for (String entry : classpath.split(File.pathSeparator)) {
+            Path path = Paths.get(entry);
+            if (Files.isDirectory(path)) {
+                Path jar = CDS_DIR.resolve(path.getFileName() + ".jar").toAbsolutePath();
+                run(jarTool, "-cf", jar.toString(), "-C", path.toString(), ".");
+                entries.add(jar.toString());
+            } else if (Files.exists(path)) {
+                entries.add(entry);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static void run(String... command) throws Exception {
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(APP_LOG.toFile())
+                .start();
+        assertEquals(0, process.waitFor(), String.join(" ", command) + " failed, see " + APP_LOG);
+    }
+
+    private static String java() {
+        return Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private Process launch(int port, String classpath, List<String> jvmOptions, List<String> appArguments)
+            throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(jvmOptions);
+        command.addAll(Arrays.asList("-cp", classpath,
+                InventoryManagementApplication.class.getName(),
+                "--spring.profiles.active=test",
+                "--server.port=" + port,
+                "--logging.level.com.verto.inventory=INFO"));
+        command.addAll(appArguments);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(APP_LOG.toFile())
+                .start();
+    }
+
+    private void waitUntilUp(Process app, int port, long launchedAt) throws Exception {
+        while (millisSince(launchedAt) < START_TIMEOUT.toMillis()) {
+            assertTrue(app.isAlive(), "Application exited during startup, see " + APP_LOG);
+            try {
+                if (get(port, "/actuator/health").statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(20);
+        }
+        fail("Application did not start within " + START_TIMEOUT);
+    }
+
+    private HttpResponse<String> get(int port, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
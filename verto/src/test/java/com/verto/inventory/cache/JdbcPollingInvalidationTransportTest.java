@@ -0,0 +1,155 @@
+package com.verto.inventory.cache;
+
+import com.verto.inventory.entity.Product;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs several "nodes" in one JVM against a shared in-memory database, each with its
+ * own cache and polling transport.
+ */
+class JdbcPollingInvalidationTransportTest {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+    private static final Duration MAX_STALENESS = Duration.ofMillis(1000);
+
+    private final List<Node> nodes = new ArrayList<>();
+    private DriverManagerDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:invalidation;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).cleanDisabled(false).load().clean();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(node -> node.bus.stop());
+    }
+
+    @Test
+    void publish_ShouldEvictOtherNodesWithinStalenessWindow() throws Exception {
+        // Given
+        Node writer = startNode("node-a");
+        Node readerB = startNode("node-b");
+        Node readerC = startNode("node-c");
+        for (long id = 1; id <= 3; id++) {
+            for (Node node : nodes) {
+                node.cacheProduct(id);
+            }
+        }
+
+        // When
+        long publishedAt = System.nanoTime();
+        writer.cache.invalidate(2L);
+        writer.bus.publish(2L);
+
+        // Then
+        Duration stalenessB = readerB.awaitEviction(2L, publishedAt);
+        Duration stalenessC = readerC.awaitEviction(2L, publishedAt);
+        assertTrue(stalenessB.compareTo(MAX_STALENESS) <= 0, "node-b stale for " + stalenessB);
+        assertTrue(stalenessC.compareTo(MAX_STALENESS) <= 0, "node-c stale for " + stalenessC);
+        assertNotNull(readerB.cache.get(1L));
+        assertNotNull(readerB.cache.get(3L));
+    }
+
+    @Test
+    void publish_ShouldNotEvictOnPublishingNode() throws Exception {
+        // Given
+        Node writer = startNode("node-a");
+        Node reader = startNode("node-b");
+        writer.cacheProduct(1L);
+        reader.cacheProduct(1L);
+
+        // When
+        writer.bus.publish(1L);
+        reader.awaitEviction(1L, System.nanoTime());
+        Thread.sleep(POLL_INTERVAL.toMillis() * 3);
+
+        // Then
+        assertNotNull(writer.cache.get(1L), "the writer evicts locally before publishing");
+    }
+
+    @Test
+    void publish_WhenManyWritesRace_ShouldDeliverEveryProduct() throws Exception {
+        // Given
+        Node writer = startNode("node-a");
+        Node reader = startNode("node-b");
+        for (long id = 1; id <= 200; id++) {
+            reader.cacheProduct(id);
+        }
+
+        // When
+        List<Thread> publishers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long offset = t;
+            Thread thread = new Thread(() -> {
+                for (long id = 1 + offset; id <= 200; id += 4) {
+                    writer.bus.publish(id);
+                }
+            });
+            publishers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : publishers) {
+            thread.join();
+        }
+
+        // Then
+        long deadline = System.nanoTime() + MAX_STALENESS.toNanos();
+        while (reader.cache.size() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, reader.cache.size());
+    }
+
+    private Node startNode(String nodeId) {
+        JdbcPollingInvalidationTransport transport = new JdbcPollingInvalidationTransport(
+                new JdbcTemplate(dataSource), new DataSourceTransactionManager(dataSource), nodeId,
+                POLL_INTERVAL, Duration.ofSeconds(2), Duration.ofHours(1));
+        ProductCache cache = new ProductCache(true, TimeUnit.MINUTES.toNanos(5), 10_000, System::nanoTime);
+        Node node = new Node(cache, new CacheInvalidationBus(cache, transport));
+        node.bus.start();
+        nodes.add(node);
+        return node;
+    }
+
+    private static final class Node {
+
+        private final ProductCache cache;
+        private final CacheInvalidationBus bus;
+
+        Node(ProductCache cache, CacheInvalidationBus bus) {
+            this.cache = cache;
+            this.bus = bus;
+        }
+
+        void cacheProduct(long id) {
+            Product product = new Product();
+            product.setId(id);
+            cache.putIfUnchanged(id, product, cache.version(id));
+        }
+
+        Duration awaitEviction(long id, long publishedAt) throws InterruptedException {
+            long deadline = publishedAt + MAX_STALENESS.toNanos() * 5;
+            while (cache.get(id) != null && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            return Duration.ofNanos(System.nanoTime() - publishedAt);
+        }
+    }
+}
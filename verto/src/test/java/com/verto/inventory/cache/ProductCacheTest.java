@@ -0,0 +1,110 @@
+package com.verto.inventory.cache;
+
+import com.verto.inventory.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private AtomicLong clock;
+    private ProductCache productCache;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        productCache = new ProductCache(true, TimeUnit.SECONDS.toNanos(30), 2, clock::get);
+        product = new Product();
+        product.setId(1L);
+    }
+
+    @Test
+    void putIfUnchanged_WhenInvalidatedDuringLoad_ShouldNotCacheStaleProduct() {
+        // Given
+        long version = productCache.version(1L);
+        productCache.invalidate(1L);
+
+        // When
+        productCache.putIfUnchanged(1L, product, version);
+
+        // Then
+        assertNull(productCache.get(1L));
+    }
+
+    @Test
+    void get_WhenCallerChangesReturnedProduct_ShouldNotChangeCachedEntry() {
+        // Given
+        productCache.putIfUnchanged(1L, product, productCache.version(1L));
+        int stock = product.getStockQuantity();
+        product.setStockQuantity(stock + 100);
+
+        // When
+        productCache.get(1L).setStockQuantity(stock + 200);
+
+        // Then
+        assertEquals(stock, productCache.get(1L).getStockQuantity());
+        assertNotSame(productCache.get(1L), productCache.get(1L));
+    }
+
+    @Test
+    void get_ShouldExpireEntriesAfterTtl() {
+        // Given
+        productCache.putIfUnchanged(1L, product, productCache.version(1L));
+        assertEquals(product, productCache.get(1L));
+
+        // When
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+
+        // Then
+        assertNull(productCache.get(1L));
+        assertEquals(0, productCache.size());
+    }
+
+    @Test
+    void putIfUnchanged_WhenFull_ShouldNotGrowPastMaxEntries() {
+        // When
+        for (long id = 1; id <= 5; id++) {
+            productCache.putIfUnchanged(id, product, productCache.version(id));
+        }
+
+        // Then
+        assertEquals(2, productCache.size());
+    }
+
+    @Test
+    void putIfUnchanged_WhenFull_ShouldEvictLeastRecentlyReadEntry() {
+        // Given
+        ProductCache cache = new ProductCache(true, TimeUnit.SECONDS.toNanos(30), 512, clock::get);
+        cache.putIfUnchanged(1L, product, cache.version(1L));
+        cache.putIfUnchanged(257L, product, cache.version(257L));
+        cache.get(1L);
+
+        // When
+        cache.putIfUnchanged(513L, product, cache.version(513L));
+
+        // Then
+        assertEquals(product, cache.get(1L));
+        assertNull(cache.get(257L));
+        assertEquals(product, cache.get(513L));
+    }
+
+    @Test
+    void putIfUnchanged_WhenFullOfExpiredEntries_ShouldStillCacheNewEntries() {
+        // Given
+        for (long id = 1; id <= 2; id++) {
+            productCache.putIfUnchanged(id, product, productCache.version(id));
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+
+        // When
+        productCache.putIfUnchanged(3L, product, productCache.version(3L));
+
+        // Then
+        assertEquals(product, productCache.get(3L));
+    }
+}
@@ -0,0 +1,87 @@
+package com.verto.inventory.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.verto.inventory.dto.AllocationRequest;
+import com.verto.inventory.dto.AllocationResult;
+import com.verto.inventory.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(OrderController.class)
+class OrderControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void allocate_WhenEveryLineAvailable_ShouldReturnOk() throws Exception {
+        // Given
+        AllocationResult result = new AllocationResult(true, Collections.singletonList(
+                new AllocationResult.Line(1L, 2, 8, 0, AllocationResult.LineStatus.ALLOCATED)));
+        when(productService.allocate(any(AllocationRequest.class))).thenReturn(result);
+
+        // When & Then
+        mockMvc.perform(post("/orders/allocate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request(new AllocationRequest.Line(1L, 2)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.allocated").value(true))
+                .andExpect(jsonPath("$.lines[0].stockQuantity").value(8));
+    }
+
+    @Test
+    void allocate_WhenAnyLineShort_ShouldReturnConflictWithShortfall() throws Exception {
+        // Given
+        AllocationResult result = new AllocationResult(false, Arrays.asList(
+                new AllocationResult.Line(1L, 2, 8, 0, AllocationResult.LineStatus.AVAILABLE),
+                new AllocationResult.Line(2L, 5, 3, 2, AllocationResult.LineStatus.INSUFFICIENT_STOCK)));
+        when(productService.allocate(any(AllocationRequest.class))).thenReturn(result);
+
+        // When & Then
+        mockMvc.perform(post("/orders/allocate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request(
+                                new AllocationRequest.Line(1L, 2), new AllocationRequest.Line(2L, 5)))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.allocated").value(false))
+                .andExpect(jsonPath("$.lines[1].status").value("INSUFFICIENT_STOCK"))
+                .andExpect(jsonPath("$.lines[1].shortfall").value(2));
+    }
+
+    @Test
+    void allocate_WhenLineQuantityInvalid_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/orders/allocate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request(new AllocationRequest.Line(1L, 0)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors['lines[0].quantity']").value("Quantity must be positive"))
+                .andExpect(jsonPath("$.path").value("/orders/allocate"));
+
+        verify(productService, never()).allocate(any(AllocationRequest.class));
+    }
+
+    private static AllocationRequest request(AllocationRequest.Line... lines) {
+        AllocationRequest request = new AllocationRequest();
+        request.setLines(Arrays.asList(lines));
+        return request;
+    }
+}
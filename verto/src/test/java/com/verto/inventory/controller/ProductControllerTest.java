@@ -1,8 +1,12 @@
 package com.verto.inventory.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.verto.inventory.dto.HistoryResolution;
+import com.verto.inventory.dto.StockHistory;
+import com.verto.inventory.dto.StockResult;
 import com.verto.inventory.dto.StockUpdateRequest;
 import com.verto.inventory.entity.Product;
+import com.verto.inventory.exception.ProductNotFoundException;
 import com.verto.inventory.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,11 +16,14 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -106,6 +113,46 @@ class ProductControllerTest {
         verify(productService).getProductById(1L);
     }
 
+    @Test
+    void getStockHistory_WhenProductExists_ShouldReturnHistory() throws Exception {
+        // Given
+        StockHistory history = new StockHistory(1L, HistoryResolution.MINUTE, Collections.singletonList(
+                new StockHistory.Point(Instant.parse("2024-01-01T10:00:00Z"), 7, 3)));
+        when(productService.getStockHistory(1L, HistoryResolution.MINUTE)).thenReturn(Optional.of(history));
+
+        // When & Then
+        mockMvc.perform(get("/products/1/history").param("resolution", "minute"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resolution").value("MINUTE"))
+                .andExpect(jsonPath("$.points[0].stockLevel").value(7))
+                .andExpect(jsonPath("$.points[0].decreased").value(3));
+
+        verify(productService).getStockHistory(1L, HistoryResolution.MINUTE);
+    }
+
+    @Test
+    void getStockHistory_WhenProductDoesNotExist_ShouldReturnNotFound() throws Exception {
+        // Given
+        when(productService.getStockHistory(eq(1L), any(HistoryResolution.class))).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/products/1/history"))
+                .andExpect(status().isNotFound());
+
+        verify(productService).getStockHistory(1L, HistoryResolution.HOUR);
+    }
+
+    @Test
+    void getStockHistory_WhenResolutionInvalid_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/products/1/history").param("resolution", "week"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown resolution 'week', expected minute, hour or day"))
+                .andExpect(jsonPath("$.path").value("/products/1/history"));
+
+        verify(productService, never()).getStockHistory(anyLong(), any(HistoryResolution.class));
+    }
+
     @Test
     void updateProduct_WhenProductExists_ShouldReturnUpdatedProduct() throws Exception {
         // Given
@@ -125,7 +172,7 @@ class ProductControllerTest {
     void updateProduct_WhenProductDoesNotExist_ShouldReturnNotFound() throws Exception {
         // Given
         when(productService.updateProduct(anyLong(), any(Product.class)))
-                .thenThrow(new RuntimeException("Product not found"));
+                .thenThrow(new ProductNotFoundException(1L));
 
         // When & Then
         mockMvc.perform(put("/products/1")
@@ -136,6 +183,20 @@ class ProductControllerTest {
         verify(productService).updateProduct(anyLong(), any(Product.class));
     }
 
+    @Test
+    void updateProduct_WhenUnexpectedErrorOccurs_ShouldReturnInternalServerError() throws Exception {
+        // Given
+        when(productService.updateProduct(anyLong(), any(Product.class)))
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        // When & Then
+        mockMvc.perform(put("/products/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testProduct)))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Unexpected error"));
+    }
+
     @Test
     void deleteProduct_WhenProductExists_ShouldReturnNoContent() throws Exception {
         // Given
@@ -151,7 +212,7 @@ class ProductControllerTest {
     @Test
     void deleteProduct_WhenProductDoesNotExist_ShouldReturnNotFound() throws Exception {
         // Given
-        doThrow(new RuntimeException("Product not found")).when(productService).deleteProduct(1L);
+        doThrow(new ProductNotFoundException(1L)).when(productService).deleteProduct(1L);
 
         // When & Then
         mockMvc.perform(delete("/products/1"))
@@ -179,7 +240,7 @@ class ProductControllerTest {
     void increaseStock_WhenProductDoesNotExist_ShouldReturnNotFound() throws Exception {
         // Given
         when(productService.increaseStock(anyLong(), any(StockUpdateRequest.class)))
-                .thenThrow(new RuntimeException("Product not found"));
+                .thenThrow(new ProductNotFoundException(1L));
 
         // When & Then
         mockMvc.perform(post("/products/1/increase")
@@ -193,7 +254,7 @@ class ProductControllerTest {
     @Test
     void decreaseStock_WhenValid_ShouldReturnUpdatedProduct() throws Exception {
         // Given
-        when(productService.decreaseStock(anyLong(), any(StockUpdateRequest.class))).thenReturn(testProduct);
+        when(productService.tryDecreaseStock(anyLong(), any(StockUpdateRequest.class))).thenReturn(StockResult.ok(testProduct));
 
         // When & Then
         mockMvc.perform(post("/products/1/decrease")
@@ -202,37 +263,44 @@ class ProductControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("Test Product"));
 
-        verify(productService).decreaseStock(anyLong(), any(StockUpdateRequest.class));
+        verify(productService).tryDecreaseStock(anyLong(), any(StockUpdateRequest.class));
     }
 
     @Test
     void decreaseStock_WhenInsufficientStock_ShouldReturnBadRequest() throws Exception {
         // Given
-        when(productService.decreaseStock(anyLong(), any(StockUpdateRequest.class)))
-                .thenThrow(new IllegalArgumentException("Cannot decrease stock below zero"));
+        when(productService.tryDecreaseStock(anyLong(), any(StockUpdateRequest.class)))
+                .thenReturn(StockResult.insufficientStock(2));
 
         // When & Then
         mockMvc.perform(post("/products/1/decrease")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(stockUpdateRequest)))
-                .andExpect(status().isBadRequest());
-
-        verify(productService).decreaseStock(anyLong(), any(StockUpdateRequest.class));
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Cannot decrease stock below zero. Current stock: 2"))
+                .andExpect(jsonPath("$.availableQuantity").value(2))
+                .andExpect(jsonPath("$.path").value("/products/1/decrease"))
+                .andExpect(jsonPath("$.timestamp").exists());
+
+        verify(productService).tryDecreaseStock(anyLong(), any(StockUpdateRequest.class));
     }
 
     @Test
     void decreaseStock_WhenProductDoesNotExist_ShouldReturnNotFound() throws Exception {
         // Given
-        when(productService.decreaseStock(anyLong(), any(StockUpdateRequest.class)))
-                .thenThrow(new RuntimeException("Product not found"));
+        when(productService.tryDecreaseStock(anyLong(), any(StockUpdateRequest.class)))
+                .thenReturn(StockResult.notFound());
 
         // When & Then
         mockMvc.perform(post("/products/1/decrease")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(stockUpdateRequest)))
-                .andExpect(status().isNotFound());
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Product not found with id: 1"))
+                .andExpect(jsonPath("$.path").value("/products/1/decrease"));
 
-        verify(productService).decreaseStock(anyLong(), any(StockUpdateRequest.class));
+        verify(productService).tryDecreaseStock(anyLong(), any(StockUpdateRequest.class));
     }
 
     @Test
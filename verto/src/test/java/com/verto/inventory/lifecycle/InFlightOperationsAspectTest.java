@@ -0,0 +1,65 @@
+package com.verto.inventory.lifecycle;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InFlightOperationsAspectTest {
+
+    private final InFlightOperations inFlightOperations = new InFlightOperations();
+
+    @Test
+    void scheduledJob_WhileRunning_ShouldCountAsInFlight() {
+        // Given
+        ScheduledJob job = new ScheduledJob(inFlightOperations);
+
+        // When
+        proxy(job).run();
+
+        // Then
+        assertEquals(1, job.inFlightDuringRun.get());
+        assertEquals(0, inFlightOperations.getInFlight());
+    }
+
+    @Test
+    void scheduledJob_WhenDraining_ShouldBeSkipped() throws Exception {
+        // Given
+        ScheduledJob job = new ScheduledJob(inFlightOperations);
+        inFlightOperations.drain(Duration.ZERO);
+
+        // When
+        proxy(job).run();
+
+        // Then
+        assertEquals(0, job.runs.get());
+    }
+
+    private ScheduledJob proxy(ScheduledJob target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new InFlightOperationsAspect(inFlightOperations));
+        return factory.getProxy();
+    }
+
+    static class ScheduledJob {
+
+        private final InFlightOperations inFlightOperations;
+        final AtomicInteger runs = new AtomicInteger();
+        final AtomicInteger inFlightDuringRun = new AtomicInteger();
+
+        ScheduledJob(InFlightOperations inFlightOperations) {
+            this.inFlightOperations = inFlightOperations;
+        }
+
+        @Scheduled(fixedDelay = 1000)
+        public void run() {
+            runs.incrementAndGet();
+            inFlightDuringRun.set(inFlightOperations.getInFlight());
+        }
+    }
+}
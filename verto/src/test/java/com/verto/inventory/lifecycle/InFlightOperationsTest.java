@@ -0,0 +1,55 @@
+package com.verto.inventory.lifecycle;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InFlightOperationsTest {
+
+    private final InFlightOperations inFlightOperations = new InFlightOperations();
+
+    @Test
+    void drain_WhenCallsInFlight_ShouldWaitForThemToFinish() throws Exception {
+        // Given
+        assertTrue(inFlightOperations.tryEnter());
+
+        // When
+        CompletableFuture<Boolean> drained = CompletableFuture.supplyAsync(() -> {
+            try {
+                return inFlightOperations.drain(Duration.ofSeconds(5));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+
+        // Then
+        assertFalse(drained.isDone());
+        inFlightOperations.exit();
+        assertTrue(drained.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void drain_WhenTimeoutElapses_ShouldReturnFalse() throws Exception {
+        // Given
+        inFlightOperations.tryEnter();
+
+        // When & Then
+        assertFalse(inFlightOperations.drain(Duration.ofMillis(50)));
+        assertEquals(1, inFlightOperations.getInFlight());
+    }
+
+    @Test
+    void tryEnter_WhenDraining_ShouldRefuseNewCalls() throws Exception {
+        // Given
+        inFlightOperations.drain(Duration.ZERO);
+
+        // When & Then
+        assertFalse(inFlightOperations.tryEnter());
+        assertEquals(0, inFlightOperations.getInFlight());
+    }
+}
@@ -0,0 +1,103 @@
+package com.verto.inventory.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reference numbers per scenario: {@code <scenario>.goodput} (expected answers per
+ * second), {@code <scenario>.p99-ms}, {@code <scenario>.error-rate} and
+ * {@code <scenario>.shed-rate}, plus the {@code <scenario>.reference-goodput} of the
+ * fixed reference mix run just before it. Goodput and p99 are scaled by the ratio of the
+ * current reference goodput to the recorded one, which cancels out how fast the machine
+ * is at the time, and may then drift by the tolerance. The error rate is a ceiling, and the shed
+ * rate may exceed its baseline by at most the shed tolerance.
+ */
+class Baseline {
+
+    private final Properties values;
+
+    private Baseline(Properties values) {
+        this.values = values;
+    }
+
+    static Baseline load(Path file) throws IOException {
+        Properties values = new Properties();
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                values.load(reader);
+            }
+        }
+        return new Baseline(values);
+    }
+
+    List<String> regressions(ScenarioResult result, double referenceGoodput, double tolerance, double shedTolerance) {
+        List<String> regressions = new ArrayList<>();
+        String scenario = result.getScenario();
+        String recordedReference = values.getProperty(scenario + ".reference-goodput");
+        double speedRatio = recordedReference != null ? referenceGoodput / Double.parseDouble(recordedReference) : 1;
+
+        String goodput = values.getProperty(scenario + ".goodput");
+        if (goodput != null) {
+            double expected = Double.parseDouble(goodput) * speedRatio;
+            if (result.getGoodput() < expected * (1 - tolerance)) {
+                regressions.add(format("%s goodput %.1f/s is below baseline %.1f/s (scaled for this machine)",
+                        scenario, result.getGoodput(), expected));
+            }
+        }
+        String p99 = values.getProperty(scenario + ".p99-ms");
+        if (p99 != null) {
+            double expected = Double.parseDouble(p99) / speedRatio;
+            if (result.getP99Millis() > expected * (1 + tolerance)) {
+                regressions.add(format("%s p99 %.2fms is above baseline %.2fms (scaled for this machine)",
+                        scenario, result.getP99Millis(), expected));
+            }
+        }
+        String errorRate = values.getProperty(scenario + ".error-rate");
+        if (errorRate != null && result.getErrorRate() > Double.parseDouble(errorRate)) {
+            regressions.add(format("%s error rate %.4f is above baseline %s: %s",
+                    scenario, result.getErrorRate(), errorRate, result.getErrorCauses()));
+        }
+        String shedRate = values.getProperty(scenario + ".shed-rate");
+        if (shedRate != null && result.getShedRate() > Double.parseDouble(shedRate) + shedTolerance) {
+            regressions.add(format("%s shed rate %.4f is above baseline %s", scenario, result.getShedRate(), shedRate));
+        }
+        return regressions;
+    }
+
+    static void write(Path file, List<ScenarioResult> results, Map<String, Double> referenceGoodputs,
+                      boolean detailed) throws IOException {
+        List<String> lines = new ArrayList<>();
+        if (!detailed) {
+            lines.add("# Recorded with mvn test -Ploadtest -Dloadtest.record-baseline=true");
+        }
+        for (ScenarioResult result : results) {
+            String scenario = result.getScenario();
+            lines.add(format("%s.reference-goodput=%.1f", scenario, referenceGoodputs.get(scenario)));
+            lines.add(format("%s.goodput=%.1f", scenario, result.getGoodput()));
+            lines.add(format("%s.p99-ms=%.2f", scenario, result.getP99Millis()));
+            lines.add(format("%s.error-rate=%.4f", scenario, result.getErrorRate()));
+            lines.add(format("%s.shed-rate=%.4f", scenario, result.getShedRate()));
+            if (detailed) {
+                lines.add(format("%s.requests=%d", scenario, result.getRequests()));
+                lines.add(format("%s.throughput=%.1f", scenario, result.getThroughput()));
+                lines.add(format("%s.p50-ms=%.2f", scenario, result.getP50Millis()));
+                result.getErrorCauses().forEach((cause, count) -> lines.add(
+                        format("%s.errors.%s=%d", scenario, cause.replace(' ', '.'), count.sum())));
+            }
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    private static String format(String pattern, Object... args) {
+        return String.format(Locale.ROOT, pattern, args);
+    }
+}
@@ -0,0 +1,20 @@
+package com.verto.inventory.loadtest;
+
+import org.h2.engine.Mode;
+
+/**
+ * H2's MySQL mode moves the identity sequence whenever a row is inserted with an id, and
+ * it does so for the ids it generated itself too. Under concurrent inserts two sessions
+ * then read the sequence before either has moved it and get the same id, which MySQL's
+ * AUTO_INCREMENT never does. The load tests switch that behaviour off before the database
+ * opens, so concurrent creates behave as they would on MySQL.
+ */
+final class H2MySqlMode {
+
+    private H2MySqlMode() {
+    }
+
+    static void matchMySqlIdentity() {
+        Mode.getInstance("MySQL").updateSequenceOnManualIdentityInsertion = false;
+    }
+}
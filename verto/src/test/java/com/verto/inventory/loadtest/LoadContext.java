@@ -0,0 +1,70 @@
+package com.verto.inventory.loadtest;
+
+import com.verto.inventory.entity.Product;
+import com.verto.inventory.repository.ProductRepository;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Target application and the data seeded for the run.
+ */
+class LoadContext {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final String baseUrl;
+    private final long[] productIds;
+    private final long hotSkuId;
+    private final AtomicLong imports = new AtomicLong();
+
+    LoadContext(String baseUrl, long[] productIds, long hotSkuId) {
+        this.baseUrl = baseUrl;
+        this.productIds = productIds;
+        this.hotSkuId = hotSkuId;
+    }
+
+    /**
+     * Seeds {@code products} catalog products plus one hot SKU holding {@code hotSkuStock}.
+     */
+    static LoadContext seed(ProductRepository productRepository, String baseUrl, int products, int hotSkuStock) {
+        List<Product> catalog = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            catalog.add(new Product(null, "Product " + i, "Seeded for load test", 50 + i % 200, 10));
+        }
+        long[] productIds = productRepository.saveAll(catalog).stream().mapToLong(Product::getId).toArray();
+        long hotSkuId = productRepository.save(new Product(null, "Hot SKU", "Flash sale item", hotSkuStock, 10)).getId();
+        return new LoadContext(baseUrl, productIds, hotSkuId);
+    }
+
+    long randomProductId(ThreadLocalRandom random) {
+        return productIds[random.nextInt(productIds.length)];
+    }
+
+    long getHotSkuId() {
+        return hotSkuId;
+    }
+
+    long nextImportNumber() {
+        return imports.incrementAndGet();
+    }
+
+    HttpRequest.Builder get(String path) {
+        return builder(path).GET();
+    }
+
+    HttpRequest.Builder post(String path, String json) {
+        return builder(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+}
@@ -0,0 +1,126 @@
+package com.verto.inventory.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs a scenario with closed-loop virtual users: each user sends its next request as
+ * soon as the previous one completes, for a fixed duration.
+ */
+class LoadDriver {
+
+    private final HttpClient client;
+    private final LoadContext context;
+
+    LoadDriver(HttpClient client, LoadContext context) {
+        this.client = client;
+        this.context = context;
+    }
+
+    ScenarioResult run(LoadScenario scenario, Duration duration) throws Exception {
+        ExecutorService users = Executors.newFixedThreadPool(scenario.getUsers());
+        ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+        AtomicLong shed = new AtomicLong();
+        Map<Operation, LongAdder> succeeded = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            succeeded.put(operation, new LongAdder());
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<LatencyLog>> logs = new ArrayList<>();
+        try {
+            for (int user = 0; user < scenario.getUsers(); user++) {
+                String clientId = scenario.getName() + "-" + user;
+                logs.add(users.submit(() -> {
+                    start.await();
+                    long deadline = System.nanoTime() + duration.toNanos();
+                    return runUser(scenario, clientId, deadline, errors, shed, succeeded);
+                }));
+            }
+            long startedAt = System.nanoTime();
+            start.countDown();
+
+            LatencyLog all = new LatencyLog();
+            for (Future<LatencyLog> log : logs) {
+                all.addAll(log.get());
+            }
+            long elapsed = System.nanoTime() - startedAt;
+            return new ScenarioResult(scenario.getName(), errors, shed.get(), elapsed, all.toArray(), succeeded);
+        } finally {
+            users.shutdownNow();
+        }
+    }
+
+    private LatencyLog runUser(LoadScenario scenario, String clientId, long deadline,
+                               ConcurrentMap<String, LongAdder> errors, AtomicLong shed,
+                               Map<Operation, LongAdder> succeeded) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LatencyLog latencies = new LatencyLog();
+        while (System.nanoTime() < deadline) {
+            Operation operation = scenario.pick(random);
+            long sentAt = System.nanoTime();
+            try {
+                HttpRequest request = operation.request(context, random)
+                        .header("X-Client-Id", clientId)
+                        .build();
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                int status = response.statusCode();
+                if (status / 100 == 2) {
+                    succeeded.get(operation).increment();
+                }
+                if (status == 429 || status == 503) {
+                    shed.incrementAndGet();
+                } else if (!operation.isExpected(status)) {
+                    countError(errors, operation + " " + status);
+                }
+            } catch (IOException e) {
+                countError(errors, operation + " " + e.getClass().getSimpleName());
+            }
+            latencies.add(System.nanoTime() - sentAt);
+        }
+        return latencies;
+    }
+
+    private static void countError(ConcurrentMap<String, LongAdder> errors, String cause) {
+        errors.computeIfAbsent(cause, key -> new LongAdder()).increment();
+    }
+
+    private static final class LatencyLog {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(LatencyLog other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.verto.inventory.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A named traffic mix: how many closed-loop virtual users run it, and the relative
+ * weight of each {@link Operation}, e.g. {@code GET_PRODUCT:80,LOW_STOCK:20}.
+ */
+class LoadScenario {
+
+    private final String name;
+    private final int users;
+    private final List<Operation> operations = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    private int totalWeight;
+
+    LoadScenario(String name, int users, String mix) {
+        this.name = name;
+        this.users = users;
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight <= 0) {
+                continue;
+            }
+            totalWeight += weight;
+            operations.add(Operation.valueOf(parts[0].trim()));
+            cumulativeWeights.add(totalWeight);
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("Scenario " + name + " has no operations: " + mix);
+        }
+    }
+
+    /**
+     * {@code loadtest/scenarios.properties}, with any {@code loadtest.*} system property
+     * taking precedence.
+     */
+    static Properties loadConfig() throws IOException {
+        Properties config = new Properties();
+        try (InputStream in = LoadScenario.class.getResourceAsStream("/loadtest/scenarios.properties")) {
+            config.load(in);
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("loadtest."))
+                .forEach(name -> config.setProperty(name, System.getProperty(name)));
+        return config;
+    }
+
+    static LoadScenario from(Properties properties, String name) {
+        String prefix = "loadtest.scenario." + name + ".";
+        return new LoadScenario(name,
+                Integer.parseInt(properties.getProperty(prefix + "users")),
+                properties.getProperty(prefix + "mix"));
+    }
+
+    Operation pick(ThreadLocalRandom random) {
+        int roll = random.nextInt(totalWeight);
+        for (int i = 0; i < operations.size(); i++) {
+            if (roll < cumulativeWeights.get(i)) {
+                return operations.get(i);
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getUsers() {
+        return users;
+    }
+}
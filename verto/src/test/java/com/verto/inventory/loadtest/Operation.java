@@ -0,0 +1,71 @@
+package com.verto.inventory.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Requests a virtual user can issue. Each operation lists the statuses that count as a
+ * correct answer; rate limiting (429) and load shedding (503) are reported separately,
+ * and anything else is an error.
+ */
+enum Operation {
+
+    GET_PRODUCT(200) {
+        @Override
+        HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random) {
+            return context.get("/products/" + context.randomProductId(random));
+        }
+    },
+    LIST_PRODUCTS(200) {
+        @Override
+        HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random) {
+            return context.get("/products");
+        }
+    },
+    LOW_STOCK(200) {
+        @Override
+        HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random) {
+            return context.get("/products/low-stock");
+        }
+    },
+    INCREASE_STOCK(200) {
+        @Override
+        HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random) {
+            return context.post("/products/" + context.randomProductId(random) + "/increase", "{\"quantity\":1}");
+        }
+    },
+    GET_HOT_SKU(200) {
+        @Override
+        HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random) {
+            return context.get("/products/" + context.getHotSkuId());
+        }
+    },
+    // 400 is the expected answer once the hot SKU has sold out.
+    DECREASE_HOT_SKU(200, 400) {
+        @Override
+        HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random) {
+            return context.post("/products/" + context.getHotSkuId() + "/decrease", "{\"quantity\":1}");
+        }
+    },
+    CREATE_PRODUCT(201) {
+        @Override
+        HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random) {
+            int stock = random.nextInt(0, 200);
+            return context.post("/products", "{\"name\":\"Imported " + context.nextImportNumber()
+                    + "\",\"description\":\"Bulk import\",\"stockQuantity\":" + stock + ",\"lowStockThreshold\":10}");
+        }
+    };
+
+    private final int[] expectedStatuses;
+
+    Operation(int... expectedStatuses) {
+        this.expectedStatuses = expectedStatuses;
+    }
+
+    abstract HttpRequest.Builder request(LoadContext context, ThreadLocalRandom random);
+
+    boolean isExpected(int status) {
+        return Arrays.stream(expectedStatuses).anyMatch(expected -> expected == status);
+    }
+}
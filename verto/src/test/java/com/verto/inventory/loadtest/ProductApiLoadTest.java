@@ -0,0 +1,110 @@
+package com.verto.inventory.loadtest;
+
+import com.verto.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays the traffic mixes in {@code loadtest/scenarios.properties} against the
+ * application running on H2, writes the results to {@code target/loadtest/report.properties}
+ * and fails if any scenario regressed against {@code loadtest/baseline.properties}.
+ * Run with {@code mvn test -Ploadtest}; any {@code loadtest.*} setting can be overridden
+ * with {@code -D}, and {@code -Dloadtest.record-baseline=true} rewrites the baseline.
+ *
+ * H2 runs in MySQL mode like the other tests, with {@link H2MySqlMode} handing out
+ * identities the way MySQL does. The per-product limit is lifted here, as it would cap the
+ * flash sale at a fixed rate and make its goodput baseline meaningless;
+ * {@link RateLimitedFlashSaleLoadTest} replays the flash sale with the shipped limits.
+ * Loopback is trusted as a proxy, so each simulated user's {@code X-Client-Id} counts as a
+ * client of its own.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "inventory.rate-limit.product.permits-per-second=1000000",
+        "inventory.rate-limit.product.burst=1000000",
+        "inventory.rate-limit.trusted-proxies=127.0.0.1,0:0:0:0:0:0:0:1",
+        "logging.level.com.verto.inventory=WARN",
+        "logging.level.org.springframework.web=WARN"
+})
+@ActiveProfiles("test")
+class ProductApiLoadTest {
+
+    private static final Path BASELINE = Paths.get("src", "test", "resources", "loadtest", "baseline.properties");
+    private static final Path REPORT = Paths.get("target", "loadtest", "report.properties");
+
+    static {
+        H2MySqlMode.matchMySqlIdentity();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void replayTrafficMixes_ShouldNotRegressAgainstBaseline() throws Exception {
+        // Given
+        Properties config = LoadScenario.loadConfig();
+        int hotSkuStock = Integer.parseInt(config.getProperty("loadtest.hot-sku-stock"));
+        LoadContext context = LoadContext.seed(productRepository, "http://localhost:" + port,
+                Integer.parseInt(config.getProperty("loadtest.seed-products")), hotSkuStock);
+        long hotSkuId = context.getHotSkuId();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        LoadDriver driver = new LoadDriver(client, context);
+        Duration duration = Duration.parse(config.getProperty("loadtest.duration"));
+        driver.run(LoadScenario.from(config, "browse"), Duration.parse(config.getProperty("loadtest.warmup")));
+
+        // When
+        List<ScenarioResult> results = new ArrayList<>();
+        LoadScenario reference = LoadScenario.from(config, "reference");
+        Duration referenceDuration = Duration.parse(config.getProperty("loadtest.reference-duration"));
+        Map<String, Double> referenceGoodputs = new HashMap<>();
+        for (String name : config.getProperty("loadtest.scenarios").split(",")) {
+            // Run right before each scenario, as the machine's spare capacity can shift
+            // during a run.
+            referenceGoodputs.put(name.trim(), driver.run(reference, referenceDuration).getGoodput());
+            ScenarioResult result = driver.run(LoadScenario.from(config, name.trim()), duration);
+            results.add(result);
+
+            int hotSkuLeft = productRepository.findById(hotSkuId).orElseThrow().getStockQuantity();
+            assertTrue(hotSkuLeft >= 0, "hot SKU stock went negative: " + hotSkuLeft);
+            hotSkuStock -= result.getSucceeded(Operation.DECREASE_HOT_SKU);
+            assertEquals(hotSkuStock, hotSkuLeft, "successful decrements and remaining stock disagree in " + name);
+        }
+        Baseline.write(REPORT, results, referenceGoodputs, true);
+
+        // Then
+        if (Boolean.parseBoolean(config.getProperty("loadtest.record-baseline"))) {
+            Baseline.write(BASELINE, results, referenceGoodputs, false);
+            return;
+        }
+        Baseline baseline = Baseline.load(BASELINE);
+        double tolerance = Double.parseDouble(config.getProperty("loadtest.tolerance"));
+        double shedTolerance = Double.parseDouble(config.getProperty("loadtest.shed-tolerance"));
+        List<String> regressions = new ArrayList<>();
+        results.forEach(result -> regressions.addAll(baseline.regressions(result,
+                referenceGoodputs.get(result.getScenario()), tolerance, shedTolerance)));
+        assertTrue(regressions.isEmpty(), String.join(System.lineSeparator(), regressions));
+    }
+}
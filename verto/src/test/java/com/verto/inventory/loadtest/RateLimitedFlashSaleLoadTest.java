@@ -0,0 +1,84 @@
+package com.verto.inventory.loadtest;
+
+import com.verto.inventory.config.RateLimitProperties;
+import com.verto.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays the flash sale from {@code loadtest/scenarios.properties} with the shipped rate
+ * limits, against a hot SKU that holds far more stock than the run can sell, so buyers
+ * are only ever turned away by the limits or by load shedding. Fails if more decrements
+ * got through than the per-product limit allows over the run, if nothing was shed, or if
+ * any request failed. Results go to {@code target/loadtest/rate-limited-flash-sale.properties}.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest-rate-limited;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "inventory.rate-limit.trusted-proxies=127.0.0.1,0:0:0:0:0:0:0:1",
+        "logging.level.com.verto.inventory=WARN",
+        "logging.level.org.springframework.web=WARN"
+})
+@ActiveProfiles("test")
+class RateLimitedFlashSaleLoadTest {
+
+    private static final Path REPORT = Paths.get("target", "loadtest", "rate-limited-flash-sale.properties");
+    private static final int HOT_SKU_STOCK = 1_000_000;
+
+    static {
+        H2MySqlMode.matchMySqlIdentity();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
+    @Test
+    void flashSale_WithShippedLimits_ShouldAdmitNoMoreThanTheProductLimit() throws Exception {
+        // Given
+        Properties config = LoadScenario.loadConfig();
+        LoadContext context = LoadContext.seed(productRepository, "http://localhost:" + port,
+                Integer.parseInt(config.getProperty("loadtest.seed-products")), HOT_SKU_STOCK);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        LoadDriver driver = new LoadDriver(client, context);
+        double referenceGoodput = driver.run(LoadScenario.from(config, "reference"),
+                Duration.parse(config.getProperty("loadtest.reference-duration"))).getGoodput();
+
+        // When
+        ScenarioResult result = driver.run(LoadScenario.from(config, "flash-sale"),
+                Duration.parse(config.getProperty("loadtest.duration")));
+        Baseline.write(REPORT, List.of(result), Map.of(result.getScenario(), referenceGoodput), true);
+
+        // Then
+        RateLimitProperties.Bucket limit = rateLimitProperties.getProduct();
+        long admitted = result.getSucceeded(Operation.DECREASE_HOT_SKU);
+        double allowed = limit.getPermitsPerSecond() * result.getElapsedSeconds() + limit.getBurst();
+        assertTrue(admitted <= allowed, admitted + " decrements got through, the product limit allows " + allowed);
+        assertTrue(result.getShedRate() > 0, "32 buyers on one SKU were never shed");
+        assertEquals(0, result.getErrorRate(), "unexpected answers: " + result.getErrorCauses());
+        int hotSkuLeft = productRepository.findById(context.getHotSkuId()).orElseThrow().getStockQuantity();
+        assertEquals(HOT_SKU_STOCK - admitted, hotSkuLeft, "successful decrements and remaining stock disagree");
+    }
+}
@@ -0,0 +1,94 @@
+package com.verto.inventory.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What one scenario achieved: completed requests per second, latency percentiles over
+ * every response, and the share of requests that failed or were shed.
+ */
+class ScenarioResult {
+
+    private final String scenario;
+    private final long requests;
+    private final long errors;
+    private final Map<String, LongAdder> errorCauses;
+    private final long shed;
+    private final long elapsedNanos;
+    private final long[] sortedLatencies;
+    private final Map<Operation, LongAdder> succeeded;
+
+    ScenarioResult(String scenario, Map<String, LongAdder> errorCauses, long shed, long elapsedNanos, long[] latencies,
+                   Map<Operation, LongAdder> succeeded) {
+        this.scenario = scenario;
+        this.requests = latencies.length;
+        this.errorCauses = new TreeMap<>(errorCauses);
+        this.errors = errorCauses.values().stream().mapToLong(LongAdder::sum).sum();
+        this.shed = shed;
+        this.elapsedNanos = elapsedNanos;
+        this.sortedLatencies = latencies.clone();
+        Arrays.sort(this.sortedLatencies);
+        this.succeeded = succeeded;
+    }
+
+    String getScenario() {
+        return scenario;
+    }
+
+    long getRequests() {
+        return requests;
+    }
+
+    long getSucceeded(Operation operation) {
+        return succeeded.get(operation).sum();
+    }
+
+    double getElapsedSeconds() {
+        return elapsedNanos / 1_000_000_000.0;
+    }
+
+    double getThroughput() {
+        return requests * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Requests per second that got an expected answer, so shed or failed requests never
+     * count towards it.
+     */
+    double getGoodput() {
+        return (requests - errors - shed) * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    double getP50Millis() {
+        return percentileMillis(0.50);
+    }
+
+    double getP99Millis() {
+        return percentileMillis(0.99);
+    }
+
+    double getErrorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    double getShedRate() {
+        return requests == 0 ? 0 : (double) shed / requests;
+    }
+
+    /**
+     * Unexpected answers by operation and status or exception, e.g. {@code CREATE_PRODUCT 500}.
+     */
+    Map<String, LongAdder> getErrorCauses() {
+        return errorCauses;
+    }
+
+    private double percentileMillis(double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
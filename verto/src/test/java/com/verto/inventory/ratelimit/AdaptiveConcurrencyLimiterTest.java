@@ -0,0 +1,72 @@
+package com.verto.inventory.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long THRESHOLD = 100L;
+
+    private AtomicLong clock;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000L);
+        limiter = new AdaptiveConcurrencyLimiter(4, 2, 8, THRESHOLD, 0.5, clock::get);
+    }
+
+    @Test
+    void tryAcquire_WhenLimitReached_ShouldShed() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        // When & Then
+        assertFalse(limiter.tryAcquire());
+        assertEquals(4, limiter.getInFlight());
+        assertEquals(1, limiter.getRejections());
+    }
+
+    @Test
+    void release_WhenFastAndSaturated_ShouldIncreaseLimit() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+
+        // When
+        limiter.release(THRESHOLD / 2);
+
+        // Then
+        assertEquals(5, limiter.getLimit());
+        assertEquals(3, limiter.getInFlight());
+    }
+
+    @Test
+    void release_WhenSlow_ShouldBackOffOncePerThresholdPeriod() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+
+        // When
+        limiter.release(THRESHOLD * 2);
+        limiter.release(THRESHOLD * 2);
+
+        // Then
+        assertEquals(2, limiter.getLimit());
+
+        // When
+        clock.addAndGet(THRESHOLD);
+        limiter.release(THRESHOLD * 2);
+
+        // Then
+        assertEquals(2, limiter.getLimit(), "limit must not drop below the configured minimum");
+    }
+}
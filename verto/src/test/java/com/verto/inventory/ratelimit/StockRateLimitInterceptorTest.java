@@ -0,0 +1,191 @@
+package com.verto.inventory.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.verto.inventory.controller.OrderController;
+import com.verto.inventory.controller.ProductController;
+import com.verto.inventory.dto.AllocationRequest;
+import com.verto.inventory.dto.AllocationResult;
+import com.verto.inventory.dto.StockResult;
+import com.verto.inventory.dto.StockUpdateRequest;
+import com.verto.inventory.entity.Product;
+import com.verto.inventory.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = {ProductController.class, OrderController.class}, properties = {
+        "inventory.rate-limit.client.permits-per-second=0.1",
+        "inventory.rate-limit.client.burst=2",
+        "inventory.rate-limit.product.permits-per-second=0.1",
+        "inventory.rate-limit.product.burst=3",
+        "inventory.rate-limit.trusted-proxies=127.0.0.1",
+        "inventory.rate-limit.concurrency.initial-limit=1",
+        "inventory.rate-limit.concurrency.min-limit=1",
+        "inventory.rate-limit.concurrency.max-limit=1"
+})
+class StockRateLimitInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String body;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StockUpdateRequest request = new StockUpdateRequest();
+        request.setQuantity(1);
+        body = objectMapper.writeValueAsString(request);
+        when(productService.tryDecreaseStock(anyLong(), any(StockUpdateRequest.class)))
+                .thenReturn(StockResult.ok(new Product()));
+    }
+
+    @Test
+    void decreaseStock_WhenClientExceedsBurst_ShouldReturnTooManyRequests() throws Exception {
+        // Given
+        mockMvc.perform(decrease(1, "client-a")).andExpect(status().isOk());
+        mockMvc.perform(decrease(2, "client-a")).andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(decrease(3, "client-a"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        verify(productService, times(2)).tryDecreaseStock(anyLong(), any(StockUpdateRequest.class));
+    }
+
+    @Test
+    void decreaseStock_WhenUntrustedCallerSendsNewClientIdEachTime_ShouldLimitByAddress() throws Exception {
+        // Given
+        mockMvc.perform(decrease(11, "rotated-1").with(remoteAddress("10.0.0.9"))).andExpect(status().isOk());
+        mockMvc.perform(decrease(12, "rotated-2").with(remoteAddress("10.0.0.9"))).andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(decrease(13, "rotated-3").with(remoteAddress("10.0.0.9")))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void decreaseStock_WhenAuthenticated_ShouldLimitByPrincipalRegardlessOfClientId() throws Exception {
+        // Given
+        mockMvc.perform(decrease(14, "spoof-1").principal(() -> "alice")).andExpect(status().isOk());
+        mockMvc.perform(decrease(15, "spoof-2").principal(() -> "alice")).andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(decrease(16, "spoof-3").principal(() -> "alice"))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(decrease(16, "spoof-3").principal(() -> "bob"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void decreaseStock_WhenProductExceedsBurst_ShouldReturnTooManyRequests() throws Exception {
+        // Given
+        mockMvc.perform(decrease(7, "client-b")).andExpect(status().isOk());
+        mockMvc.perform(decrease(7, "client-c")).andExpect(status().isOk());
+        mockMvc.perform(decrease(7, "client-d")).andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(decrease(7, "client-e"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"));
+    }
+
+    @Test
+    void decreaseStock_WhenShedForCapacity_ShouldNotSpendClientOrProductTokens() throws Exception {
+        // Given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productService.tryDecreaseStock(eq(21L), any(StockUpdateRequest.class))).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return StockResult.ok(new Product());
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> holder = executor.submit(() -> mockMvc.perform(decrease(21, "client-j")).andExpect(status().isOk()));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        try {
+            // When & Then
+            mockMvc.perform(decrease(22, "client-k")).andExpect(status().isServiceUnavailable());
+            mockMvc.perform(decrease(22, "client-k")).andExpect(status().isServiceUnavailable());
+        } finally {
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+            executor.shutdown();
+        }
+        mockMvc.perform(decrease(22, "client-k")).andExpect(status().isOk());
+        mockMvc.perform(decrease(22, "client-k")).andExpect(status().isOk());
+    }
+
+    @Test
+    void allocate_WhenAnyLineProductExceedsBurst_ShouldReturnTooManyRequestsWithoutAllocating() throws Exception {
+        // Given
+        when(productService.allocate(any(AllocationRequest.class)))
+                .thenReturn(new AllocationResult(true, Collections.emptyList()));
+        mockMvc.perform(decrease(9, "client-f")).andExpect(status().isOk());
+        mockMvc.perform(decrease(9, "client-g")).andExpect(status().isOk());
+        mockMvc.perform(allocate("client-h", 8L, 9L)).andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(allocate("client-i", 8L, 9L))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        verify(productService, times(1)).allocate(any(AllocationRequest.class));
+    }
+
+    private static RequestPostProcessor remoteAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    private MockHttpServletRequestBuilder allocate(String client, Long... productIds) throws Exception {
+        AllocationRequest request = new AllocationRequest();
+        request.setLines(Arrays.stream(productIds)
+                .map(id -> new AllocationRequest.Line(id, 1))
+                .collect(Collectors.toList()));
+        return post("/orders/allocate")
+                .header("X-Client-Id", client)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request));
+    }
+
+    private MockHttpServletRequestBuilder decrease(long id, String client) {
+        return post("/products/" + id + "/decrease")
+                .header("X-Client-Id", client)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+}
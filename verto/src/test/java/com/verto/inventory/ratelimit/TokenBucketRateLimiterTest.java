@@ -0,0 +1,123 @@
+package com.verto.inventory.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private AtomicLong clock;
+    private TokenBucketRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000L);
+        limiter = new TokenBucketRateLimiter(10, 3, 64, clock::get);
+    }
+
+    @Test
+    void tryAcquire_WithinBurst_ShouldAdmit() {
+        // When & Then
+        assertEquals(0, limiter.tryAcquire("client-a"));
+        assertEquals(0, limiter.tryAcquire("client-a"));
+        assertEquals(0, limiter.tryAcquire("client-a"));
+        assertEquals(0, limiter.getRejections());
+    }
+
+    @Test
+    void tryAcquire_WhenBurstExhausted_ShouldReturnWaitUntilNextPermit() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("client-a");
+        }
+
+        // When
+        long wait = limiter.tryAcquire("client-a");
+
+        // Then
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+        assertEquals(1, limiter.getRejections());
+    }
+
+    @Test
+    void tryAcquire_AfterRefillInterval_ShouldAdmitAgain() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("client-a");
+        }
+
+        // When
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        // Then
+        assertEquals(0, limiter.tryAcquire("client-a"));
+        assertTrue(limiter.tryAcquire("client-a") > 0);
+    }
+
+    @Test
+    void tryAcquire_WhenKeysCollideOnStripe_ShouldKeepSeparateBuckets() {
+        // Given
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("Aa");
+        }
+
+        // When & Then
+        assertEquals(0, limiter.tryAcquire("BB"));
+        assertEquals(0, limiter.tryAcquire("BB"));
+        assertEquals(0, limiter.tryAcquire("BB"));
+        assertTrue(limiter.tryAcquire("BB") > 0);
+        assertTrue(limiter.tryAcquire("Aa") > 0);
+    }
+
+    @Test
+    void tryAcquire_WithHalfAsManyDrainedKeysAsStripes_ShouldNotThrottleAnyKeyForAnother() {
+        // When
+        for (int key = 0; key < 32; key++) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(0, limiter.tryAcquire("client-" + key), "client-" + key);
+            }
+        }
+
+        // Then
+        assertEquals(0, limiter.getRejections());
+        assertTrue(limiter.tryAcquire("client-0") > 0);
+    }
+
+    @Test
+    void tryAcquire_UnderContention_ShouldNeverAdmitMoreThanBurst() throws Exception {
+        // Given
+        int threads = 8;
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1_000; i++) {
+                    if (limiter.tryAcquire("hot-sku") == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(3, admitted.get());
+        assertEquals(threads * 1_000 - 3, limiter.getRejections());
+    }
+}
@@ -0,0 +1,185 @@
+package com.verto.inventory.repository;
+
+import com.verto.inventory.entity.Product;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:partitioned;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "inventory.partitioning.enabled=true",
+        "inventory.partitioning.partitions=4"
+})
+@ActiveProfiles("test")
+class PartitionedProductRepositoryTest extends ProductRepositoryContractTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void save_ShouldStoreEachProductInPartitionForItsId() {
+        // When
+        List<Long> ids = createProducts(40);
+
+        // Then
+        for (Long id : ids) {
+            Integer rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM products_p" + Math.floorMod(id, 4L) + " WHERE id = ?", Integer.class, id);
+            assertEquals(1, rows, "product " + id);
+        }
+        for (int partition = 0; partition < 4; partition++) {
+            Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products_p" + partition, Integer.class);
+            assertTrue(rows > 0, "partition " + partition + " is empty");
+        }
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class));
+    }
+
+    @Test
+    void findAll_InsideTransaction_ShouldSeeOwnUncommittedWrites() {
+        // When
+        List<Product> found = transactionTemplate.execute(status -> {
+            productRepository.save(new Product(null, "Pending", null, 1, 5));
+            List<Product> all = productRepository.findAll();
+            status.setRollbackOnly();
+            return all;
+        });
+
+        // Then
+        assertEquals(1, found.size());
+        assertTrue(productRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void migrate_WhenStartedUnpartitionedThenEnabled_ShouldMoveExistingRowsAndContinueIdsPastThem() {
+        // Given
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:legacy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+        migrate(dataSource, false, 4);
+        legacy.update("INSERT INTO products (id, name, stock_quantity, low_stock_threshold) VALUES (1001, 'Legacy A', 3, 5)");
+        legacy.update("INSERT INTO products (id, name, stock_quantity, low_stock_threshold) VALUES (1002, 'Legacy B', 9, 5)");
+
+        // When
+        migrate(dataSource, true, 4);
+
+        // Then
+        assertEquals("Legacy A", legacy.queryForObject("SELECT name FROM products_p1 WHERE id = 1001", String.class));
+        assertEquals("Legacy B", legacy.queryForObject("SELECT name FROM products_p2 WHERE id = 1002", String.class));
+        assertEquals(0, legacy.queryForObject("SELECT COUNT(*) FROM products", Integer.class));
+        assertEquals(Arrays.asList(1004L, 1005L, 1006L, 1003L),
+                legacy.queryForList("SELECT next_id FROM product_partition_ids ORDER BY partition_no", Long.class));
+
+        // When
+        PartitionedProductStore store = new PartitionedProductStore(legacy, 4, 1);
+        try {
+            store.verifyLayout();
+            Product created = store.save(new Product(null, "New", null, 1, 5));
+
+            // Then
+            assertEquals(3, store.findById(1001L, false).orElseThrow().getStockQuantity());
+            assertTrue(created.getId() > 1002L);
+            assertEquals("New", store.findById(created.getId(), false).orElseThrow().getName());
+            assertEquals(3, store.findAll().size());
+        } finally {
+            store.shutdown();
+            legacy.execute("SHUTDOWN");
+        }
+    }
+
+    @Test
+    void migrate_WhenPartitionCountChangesThenDisabled_ShouldMoveRowsToTheirNewTables() {
+        // Given
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:relayout;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate relayout = new JdbcTemplate(dataSource);
+        migrate(dataSource, true, 4);
+        relayout.update("INSERT INTO products_p1 (id, name, stock_quantity, low_stock_threshold) VALUES (1001, 'A', 3, 5)");
+        relayout.update("INSERT INTO products_p3 (id, name, stock_quantity, low_stock_threshold) VALUES (1003, 'B', 9, 5)");
+
+        try {
+            // When
+            migrate(dataSource, true, 3);
+
+            // Then
+            assertEquals("A", relayout.queryForObject("SELECT name FROM products_p2 WHERE id = 1001", String.class));
+            assertEquals("B", relayout.queryForObject("SELECT name FROM products_p1 WHERE id = 1003", String.class));
+            assertEquals(1, relayout.queryForObject("SELECT COUNT(*) FROM products_p1", Integer.class));
+            assertEquals(0, relayout.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'products_p3'", Integer.class));
+            assertEquals(Arrays.asList(1005L, 1006L, 1004L),
+                    relayout.queryForList("SELECT next_id FROM product_partition_ids ORDER BY partition_no", Long.class));
+
+            // When
+            migrate(dataSource, false, 3);
+            relayout.update("INSERT INTO products (name, stock_quantity, low_stock_threshold) VALUES ('C', 1, 5)");
+
+            // Then
+            assertEquals(Arrays.asList(1001L, 1003L, 1004L),
+                    relayout.queryForList("SELECT id FROM products ORDER BY id", Long.class));
+            assertEquals(0, relayout.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.tables WHERE table_name LIKE 'products_p%'", Integer.class));
+            assertEquals(0, relayout.queryForObject("SELECT COUNT(*) FROM product_partition_ids", Integer.class));
+        } finally {
+            relayout.execute("SHUTDOWN");
+        }
+    }
+
+    @Test
+    void verifyLayout_WhenProductsWereNotPartitionedByMigration_ShouldFail() {
+        // Given
+        jdbcTemplate.update("INSERT INTO products (id, name, stock_quantity, low_stock_threshold) VALUES (1001, 'Legacy', 3, 5)");
+        PartitionedProductStore store = new PartitionedProductStore(jdbcTemplate, 4, 1);
+
+        try {
+            // When & Then
+            assertThrows(IllegalStateException.class, store::verifyLayout);
+        } finally {
+            store.shutdown();
+            jdbcTemplate.update("DELETE FROM products");
+        }
+    }
+
+    @Test
+    void unchanged_WhenUpdateCountIsNotExactlyOne_ShouldReportProduct() {
+        // When
+        List<Long> unchanged = PartitionedProductStore.unchanged(Arrays.asList(1L, 2L, 3L, 4L),
+                new int[]{1, 0, 2, Statement.SUCCESS_NO_INFO});
+
+        // Then
+        assertEquals(Arrays.asList(2L, 3L, 4L), unchanged);
+    }
+
+    @Test
+    void findByIdForUpdate_ShouldRouteToPartition() {
+        // Given
+        Long id = createProducts(5).get(3);
+
+        // When
+        Product locked = transactionTemplate.execute(status -> productRepository.findByIdForUpdate(id).orElseThrow());
+
+        // Then
+        assertEquals(id, locked.getId());
+    }
+
+    private static void migrate(DataSource dataSource, boolean partitioned, int partitions) {
+        Flyway.configure().dataSource(dataSource)
+                .javaMigrations(new ProductPartitionMigration(partitioned, partitions))
+                .load().migrate();
+    }
+}
@@ -0,0 +1,147 @@
+package com.verto.inventory.repository;
+
+import com.verto.inventory.dto.StockLevel;
+import com.verto.inventory.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every product table layout must provide; subclasses pick the layout.
+ */
+abstract class ProductRepositoryContractTest {
+
+    @Autowired
+    protected ProductRepository productRepository;
+
+    @BeforeEach
+    void clearProducts() {
+        productRepository.findAll().forEach(product -> productRepository.deleteById(product.getId()));
+    }
+
+    @Test
+    void save_ThenFindById_ShouldRoundTrip() {
+        // Given
+        Product saved = productRepository.save(new Product(null, "Widget", "Blue", 12, 5));
+
+        // When
+        Product found = productRepository.findById(saved.getId()).orElseThrow();
+
+        // Then
+        assertEquals("Widget", found.getName());
+        assertEquals(12, found.getStockQuantity());
+        assertTrue(productRepository.existsById(saved.getId()));
+
+        // When
+        found.setStockQuantity(3);
+        productRepository.save(found);
+
+        // Then
+        assertEquals(3, productRepository.findById(saved.getId()).orElseThrow().getStockQuantity());
+
+        // When
+        productRepository.deleteById(saved.getId());
+
+        // Then
+        assertFalse(productRepository.existsById(saved.getId()));
+        assertTrue(productRepository.findById(saved.getId()).isEmpty());
+    }
+
+    @Test
+    void findAll_ShouldReturnEveryProductInIdOrder() {
+        // Given
+        List<Long> ids = createProducts(40);
+
+        // When
+        List<Long> found = productRepository.findAll().stream().map(Product::getId).collect(Collectors.toList());
+
+        // Then
+        assertEquals(ids.stream().sorted().collect(Collectors.toList()), found);
+    }
+
+    @Test
+    void findLowStockProducts_ShouldReturnOnlyProductsBelowThreshold() {
+        // Given
+        createProducts(40);
+
+        // When
+        List<Product> lowStock = productRepository.findLowStockProducts();
+
+        // Then
+        assertEquals(20, lowStock.size());
+        assertTrue(lowStock.stream().allMatch(product -> product.getStockQuantity() < product.getLowStockThreshold()));
+    }
+
+    @Test
+    void findIdsAfter_ShouldPageThroughIdsInOrder() {
+        // Given
+        List<Long> ids = createProducts(40);
+
+        // When
+        List<Long> walked = new ArrayList<>();
+        List<Long> page = productRepository.findIdsAfter(0L, PageRequest.of(0, 7));
+        while (!page.isEmpty()) {
+            assertTrue(page.size() <= 7);
+            walked.addAll(page);
+            page = productRepository.findIdsAfter(page.get(page.size() - 1), PageRequest.of(0, 7));
+        }
+
+        // Then
+        assertEquals(ids.stream().sorted().collect(Collectors.toList()), walked);
+    }
+
+    @Test
+    void findStockLevelsBetween_ShouldReturnRangeInIdOrder() {
+        // Given
+        List<Long> ids = createProducts(40).stream().sorted().collect(Collectors.toList());
+
+        // When
+        List<StockLevel> levels = productRepository.findStockLevelsBetween(ids.get(10), ids.get(29));
+
+        // Then
+        assertEquals(ids.subList(10, 30), levels.stream().map(StockLevel::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void decreaseStockIfAvailable_ShouldOnlyDecreaseProductsWithEnoughStock() {
+        // Given
+        List<Long> ids = createProducts(3);
+        long missingId = ids.stream().mapToLong(Long::longValue).max().orElseThrow() + 1000;
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        quantities.put(ids.get(0), 5);
+        quantities.put(ids.get(1), 5);
+        quantities.put(ids.get(2), 2);
+        quantities.put(missingId, 1);
+
+        // When
+        List<Long> unchanged = productRepository.decreaseStockIfAvailable(quantities);
+
+        // Then
+        assertEquals(Arrays.asList(ids.get(0), missingId), unchanged);
+        List<StockLevel> levels = productRepository.findStockLevels(quantities.keySet());
+        assertEquals(ids.stream().sorted().collect(Collectors.toList()),
+                levels.stream().map(StockLevel::getId).collect(Collectors.toList()));
+        Map<Long, Integer> stock = levels.stream().collect(Collectors.toMap(StockLevel::getId, StockLevel::getStockQuantity));
+        assertEquals(Arrays.asList(2, 45, 0), ids.stream().map(stock::get).collect(Collectors.toList()));
+    }
+
+    protected List<Long> createProducts(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int stock = i % 2 == 0 ? 2 : 50;
+            ids.add(productRepository.save(new Product(null, "Product " + i, null, stock, 10)).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,9 @@
+package com.verto.inventory.repository;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:unpartitioned;MODE=MySQL;DATABASE_TO_LOWER=TRUE")
+@ActiveProfiles("test")
+class UnpartitionedProductRepositoryTest extends ProductRepositoryContractTest {
+}
@@ -0,0 +1,23 @@
+package com.verto.inventory.service;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * {@link OrderAllocationConcurrencyTest} against MySQL, whose row locking and deadlock
+ * detection H2 does not reproduce. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MySqlOrderAllocationConcurrencyTest extends OrderAllocationConcurrencyTest {
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = MySqlTestDatabase.container();
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        MySqlTestDatabase.register(registry, MYSQL);
+    }
+}
@@ -0,0 +1,26 @@
+package com.verto.inventory.service;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * {@link OrderAllocationConcurrencyTest} against MySQL with products partitioned, where
+ * an order's lines are batched updates to different partition tables. Skipped when Docker
+ * is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MySqlPartitionedOrderAllocationConcurrencyTest extends OrderAllocationConcurrencyTest {
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = MySqlTestDatabase.container();
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        MySqlTestDatabase.register(registry, MYSQL);
+        registry.add("inventory.partitioning.enabled", () -> "true");
+        registry.add("inventory.partitioning.partitions", () -> "4");
+    }
+}
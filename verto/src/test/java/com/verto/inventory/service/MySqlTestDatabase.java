@@ -0,0 +1,29 @@
+package com.verto.inventory.service;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * MySQL 8 container and the properties that point the application at it, replacing the
+ * H2 database of the test profile.
+ */
+final class MySqlTestDatabase {
+
+    private static final DockerImageName IMAGE = DockerImageName.parse("mysql:8.0");
+
+    private MySqlTestDatabase() {
+    }
+
+    static MySQLContainer<?> container() {
+        return new MySQLContainer<>(IMAGE);
+    }
+
+    static void register(DynamicPropertyRegistry registry, MySQLContainer<?> mysql) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "com.mysql.cj.jdbc.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.MySQLDialect");
+    }
+}
@@ -0,0 +1,103 @@
+package com.verto.inventory.service;
+
+import com.verto.inventory.dto.AllocationRequest;
+import com.verto.inventory.dto.AllocationResult;
+import com.verto.inventory.entity.Product;
+import com.verto.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many clients allocate overlapping orders, with lines in random order, against a few
+ * products until they sell out. Every call must complete, and allocated units plus
+ * remaining stock must equal the starting stock.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:allocation;MODE=MySQL;DATABASE_TO_LOWER=TRUE")
+@ActiveProfiles("test")
+class OrderAllocationConcurrencyTest {
+
+    private static final int PRODUCTS = 6;
+    private static final int STOCK_PER_PRODUCT = 300;
+    private static final int CLIENTS = 16;
+    private static final int ORDERS_PER_CLIENT = 60;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void allocate_WhenOrdersOverlapUnderContention_ShouldNeitherDeadlockNorOversell() throws Exception {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            ids.add(productRepository.save(new Product(null, "Hot " + i, null, STOCK_PER_PRODUCT, 5)).getId());
+        }
+        AtomicLongArray allocated = new AtomicLongArray(PRODUCTS);
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> clients = new ArrayList<>();
+
+        // When
+        for (int client = 0; client < CLIENTS; client++) {
+            Random random = new Random(client);
+            clients.add(executor.submit(() -> {
+                start.await();
+                int rejected = 0;
+                for (int order = 0; order < ORDERS_PER_CLIENT; order++) {
+                    List<Integer> products = new ArrayList<>();
+                    for (int i = 0; i < PRODUCTS; i++) {
+                        products.add(i);
+                    }
+                    Collections.shuffle(products, random);
+                    List<AllocationRequest.Line> lines = new ArrayList<>();
+                    for (int product : products.subList(0, 2 + random.nextInt(PRODUCTS - 1))) {
+                        lines.add(new AllocationRequest.Line(ids.get(product), 1 + random.nextInt(3)));
+                    }
+                    AllocationRequest request = new AllocationRequest();
+                    request.setLines(lines);
+
+                    AllocationResult result = productService.allocate(request);
+                    if (!result.isAllocated()) {
+                        rejected++;
+                        continue;
+                    }
+                    for (AllocationResult.Line line : result.getLines()) {
+                        allocated.addAndGet(ids.indexOf(line.getProductId()), line.getRequestedQuantity());
+                    }
+                }
+                return rejected;
+            }));
+        }
+        start.countDown();
+        int rejected = 0;
+        for (Future<Integer> client : clients) {
+            rejected += client.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertTrue(rejected > 0, "stock should sell out during the run");
+        for (int i = 0; i < PRODUCTS; i++) {
+            int remaining = productRepository.findById(ids.get(i)).orElseThrow().getStockQuantity();
+            assertTrue(remaining >= 0);
+            assertEquals(STOCK_PER_PRODUCT, allocated.get(i) + remaining, "product " + ids.get(i));
+        }
+    }
+}
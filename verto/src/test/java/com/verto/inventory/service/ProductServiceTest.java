@@ -1,7 +1,17 @@
 package com.verto.inventory.service;
 
+import com.verto.inventory.cache.CacheInvalidationBus;
+import com.verto.inventory.cache.ProductCache;
+import com.verto.inventory.dto.AllocationRequest;
+import com.verto.inventory.dto.AllocationResult;
+import com.verto.inventory.dto.HistoryResolution;
+import com.verto.inventory.dto.StockHistory;
+import com.verto.inventory.dto.StockLevel;
+import com.verto.inventory.dto.StockResult;
 import com.verto.inventory.dto.StockUpdateRequest;
 import com.verto.inventory.entity.Product;
+import com.verto.inventory.exception.InsufficientStockException;
+import com.verto.inventory.exception.ProductNotFoundException;
 import com.verto.inventory.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,9 +20,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,6 +49,15 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private StockHistoryStore stockHistoryStore;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
     @InjectMocks
     private ProductService productService;
 
@@ -85,6 +118,20 @@ class ProductServiceTest {
         assertTrue(result.isPresent());
         assertEquals(testProduct.getName(), result.get().getName());
         verify(productRepository).findById(1L);
+        verify(productCache).putIfUnchanged(1L, testProduct, 0L);
+    }
+
+    @Test
+    void getProductById_WhenCached_ShouldNotQueryRepository() {
+        // Given
+        when(productCache.get(1L)).thenReturn(testProduct);
+
+        // When
+        Optional<Product> result = productService.getProductById(1L);
+
+        // Then
+        assertEquals(testProduct, result.orElseThrow());
+        verify(productRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -100,6 +147,89 @@ class ProductServiceTest {
         verify(productRepository).findById(1L);
     }
 
+    @Test
+    void getProductById_WhenCalledConcurrently_ShouldQueryOncePerBurst() throws Exception {
+        // Given
+        int bursts = 3;
+        int callers = 16;
+        AtomicReference<CountDownLatch> queryStarted = new AtomicReference<>();
+        AtomicReference<CountDownLatch> releaseQuery = new AtomicReference<>();
+        AtomicReference<Thread> leader = new AtomicReference<>();
+        when(productRepository.findById(1L)).thenAnswer(invocation -> {
+            leader.set(Thread.currentThread());
+            queryStarted.get().countDown();
+            releaseQuery.get().await(5, TimeUnit.SECONDS);
+            return Optional.of(testProduct);
+        });
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(callers, runnable -> {
+            Thread thread = new Thread(runnable);
+            threads.add(thread);
+            return thread;
+        });
+
+        try {
+            for (int burst = 1; burst <= bursts; burst++) {
+                queryStarted.set(new CountDownLatch(1));
+                releaseQuery.set(new CountDownLatch(1));
+
+                // When
+                List<Future<Optional<Product>>> results = startLookups(executor, callers, 1L);
+                assertTrue(queryStarted.get().await(5, TimeUnit.SECONDS));
+                awaitWaitingOnLookup(threads, leader.get(), callers - 1);
+                releaseQuery.get().countDown();
+
+                // Then
+                Set<Product> copies = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (Future<Optional<Product>> result : results) {
+                    Product product = result.get(5, TimeUnit.SECONDS).orElseThrow();
+                    assertEquals(testProduct, product);
+                    copies.add(product);
+                }
+                assertEquals(callers, copies.size());
+                verify(productRepository, times(burst)).findById(1L);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getProductById_WhenStockChangesDuringLookup_ShouldNotJoinStaleLookup() throws Exception {
+        // Given
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        when(productRepository.findById(1L)).thenAnswer(invocation -> {
+            if (queries.incrementAndGet() == 1) {
+                queryStarted.countDown();
+                releaseQuery.await(5, TimeUnit.SECONDS);
+            }
+            return Optional.of(testProduct);
+        });
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            Future<Optional<Product>> staleLookup = executor.submit(() -> productService.getProductById(1L));
+            assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+            productService.increaseStock(1L, stockUpdateRequest);
+            Optional<Product> freshLookup = executor.submit(() -> productService.getProductById(1L))
+                    .get(1, TimeUnit.SECONDS);
+            releaseQuery.countDown();
+
+            // Then
+            assertTrue(freshLookup.isPresent());
+            assertTrue(staleLookup.get(5, TimeUnit.SECONDS).isPresent());
+            assertEquals(2, queries.get());
+        } finally {
+            releaseQuery.countDown();
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void updateProduct_WhenProductExists_ShouldReturnUpdatedProduct() {
         // Given
@@ -108,7 +238,7 @@ class ProductServiceTest {
         updatedProduct.setDescription("Updated Description");
         updatedProduct.setLowStockThreshold(3);
 
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testProduct));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
         // When
@@ -116,19 +246,19 @@ class ProductServiceTest {
 
         // Then
         assertNotNull(result);
-        verify(productRepository).findById(1L);
+        verify(productRepository).findByIdForUpdate(1L);
         verify(productRepository).save(testProduct);
     }
 
     @Test
     void updateProduct_WhenProductDoesNotExist_ShouldThrowException() {
         // Given
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(RuntimeException.class, () -> 
             productService.updateProduct(1L, testProduct));
-        verify(productRepository).findById(1L);
+        verify(productRepository).findByIdForUpdate(1L);
         verify(productRepository, never()).save(any(Product.class));
     }
 
@@ -160,7 +290,7 @@ class ProductServiceTest {
     @Test
     void increaseStock_WhenProductExists_ShouldIncreaseStock() {
         // Given
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testProduct));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
         // When
@@ -168,26 +298,26 @@ class ProductServiceTest {
 
         // Then
         assertNotNull(result);
-        verify(productRepository).findById(1L);
+        verify(productRepository).findByIdForUpdate(1L);
         verify(productRepository).save(testProduct);
     }
 
     @Test
     void increaseStock_WhenProductDoesNotExist_ShouldThrowException() {
         // Given
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(RuntimeException.class, () -> 
             productService.increaseStock(1L, stockUpdateRequest));
-        verify(productRepository).findById(1L);
+        verify(productRepository).findByIdForUpdate(1L);
         verify(productRepository, never()).save(any(Product.class));
     }
 
     @Test
     void decreaseStock_WhenValidDecrease_ShouldDecreaseStock() {
         // Given
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testProduct));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
         // When
@@ -195,33 +325,113 @@ class ProductServiceTest {
 
         // Then
         assertNotNull(result);
-        verify(productRepository).findById(1L);
+        verify(productRepository).findByIdForUpdate(1L);
         verify(productRepository).save(testProduct);
+        verify(stockHistoryStore).record(1L, 0, 5);
+        verify(productCache).invalidate(1L);
+        verify(invalidationBus).publish(1L);
     }
 
     @Test
     void decreaseStock_WhenInsufficientStock_ShouldThrowException() {
         // Given
         testProduct.setStockQuantity(3); // Less than requested decrease
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testProduct));
 
         // When & Then
-        assertThrows(IllegalArgumentException.class, () -> 
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class, () ->
             productService.decreaseStock(1L, stockUpdateRequest));
-        verify(productRepository).findById(1L);
+        assertEquals(3, exception.getAvailableQuantity());
+        assertEquals(0, exception.getStackTrace().length);
+        verify(productRepository).findByIdForUpdate(1L);
         verify(productRepository, never()).save(any(Product.class));
+        verifyNoInteractions(stockHistoryStore);
     }
 
     @Test
     void decreaseStock_WhenProductDoesNotExist_ShouldThrowException() {
         // Given
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
 
         // When & Then
-        assertThrows(RuntimeException.class, () -> 
+        assertThrows(ProductNotFoundException.class, () ->
             productService.decreaseStock(1L, stockUpdateRequest));
-        verify(productRepository).findById(1L);
+        verify(productRepository).findByIdForUpdate(1L);
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void tryDecreaseStock_WhenInsufficientStock_ShouldReturnRejectionWithoutSaving() {
+        // Given
+        testProduct.setStockQuantity(3);
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testProduct));
+
+        // When
+        StockResult result = productService.tryDecreaseStock(1L, stockUpdateRequest);
+
+        // Then
+        assertEquals(StockResult.Status.INSUFFICIENT_STOCK, result.getStatus());
+        assertEquals(3, result.getAvailableQuantity());
+        assertNull(result.getProduct());
         verify(productRepository, never()).save(any(Product.class));
+        verifyNoInteractions(stockHistoryStore, invalidationBus);
+    }
+
+    @Test
+    void tryDecreaseStock_WhenProductDoesNotExist_ShouldReturnNotFound() {
+        // Given
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
+
+        // When
+        StockResult result = productService.tryDecreaseStock(1L, stockUpdateRequest);
+
+        // Then
+        assertSame(StockResult.notFound(), result);
+    }
+
+    @Test
+    void allocate_WhenEveryLineAvailable_ShouldDecreaseCombinedLinesInIdOrder() {
+        // Given
+        SortedMap<Long, Integer> expected = new TreeMap<>();
+        expected.put(2L, 3);
+        expected.put(7L, 4);
+        when(productRepository.decreaseStockIfAvailable(expected)).thenReturn(Collections.emptyList());
+        when(productRepository.findStockLevels(expected.keySet())).thenReturn(Arrays.asList(
+                new StockLevel(2L, "A", 7, 5), new StockLevel(7L, "B", 0, 5)));
+
+        // When
+        AllocationResult result = productService.allocate(allocationRequest(
+                new AllocationRequest.Line(7L, 1), new AllocationRequest.Line(2L, 3), new AllocationRequest.Line(7L, 3)));
+
+        // Then
+        assertTrue(result.isAllocated());
+        assertEquals(Arrays.asList(
+                new AllocationResult.Line(2L, 3, 7, 0, AllocationResult.LineStatus.ALLOCATED),
+                new AllocationResult.Line(7L, 4, 0, 0, AllocationResult.LineStatus.ALLOCATED)), result.getLines());
+        verify(stockHistoryStore).record(2L, 0, 3);
+        verify(stockHistoryStore).record(7L, 0, 4);
+        verify(invalidationBus).publish(2L);
+        verify(invalidationBus).publish(7L);
+    }
+
+    @Test
+    void allocate_WhenAnyLineShort_ShouldReportShortfallPerLine() {
+        // Given
+        when(productRepository.decreaseStockIfAvailable(any())).thenReturn(Arrays.asList(2L, 9L));
+        when(productRepository.findStockLevels(any())).thenReturn(Arrays.asList(
+                new StockLevel(1L, "A", 6, 5), new StockLevel(2L, "B", 1, 5)));
+
+        // When
+        AllocationResult result = productService.allocate(allocationRequest(
+                new AllocationRequest.Line(1L, 4), new AllocationRequest.Line(2L, 3), new AllocationRequest.Line(9L, 2)));
+
+        // Then
+        assertFalse(result.isAllocated());
+        assertEquals(Arrays.asList(
+                new AllocationResult.Line(1L, 4, 10, 0, AllocationResult.LineStatus.AVAILABLE),
+                new AllocationResult.Line(2L, 3, 1, 2, AllocationResult.LineStatus.INSUFFICIENT_STOCK),
+                new AllocationResult.Line(9L, 2, 0, 2, AllocationResult.LineStatus.NOT_FOUND)), result.getLines());
+        verifyNoInteractions(stockHistoryStore, invalidationBus);
     }
 
     @Test
@@ -238,4 +448,60 @@ class ProductServiceTest {
         assertEquals(testProduct.getName(), result.get(0).getName());
         verify(productRepository).findLowStockProducts();
     }
+
+    @Test
+    void getStockHistory_WhenProductExists_ShouldReturnHistory() {
+        // Given
+        StockHistory history = new StockHistory(1L, HistoryResolution.HOUR, Collections.emptyList());
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(stockHistoryStore.getHistory(1L, HistoryResolution.HOUR, 10)).thenReturn(history);
+
+        // When
+        Optional<StockHistory> result = productService.getStockHistory(1L, HistoryResolution.HOUR);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertSame(history, result.get());
+    }
+
+    @Test
+    void getStockHistory_WhenProductDoesNotExist_ShouldReturnEmpty() {
+        // Given
+        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // When
+        Optional<StockHistory> result = productService.getStockHistory(1L, HistoryResolution.HOUR);
+
+        // Then
+        assertFalse(result.isPresent());
+        verifyNoInteractions(stockHistoryStore);
+    }
+
+    /**
+     * Waits until {@code count} callers other than the one running the query are parked
+     * on the in-flight lookup; that wait is the only timed one on their path, while idle
+     * pool threads wait without a timeout.
+     */
+    private static void awaitWaitingOnLookup(List<Thread> threads, Thread leader, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threads.stream().filter(thread -> thread != leader
+                && thread.getState() == Thread.State.TIMED_WAITING).count() < count) {
+            assertTrue(System.nanoTime() < deadline, "callers did not join the in-flight lookup");
+            Thread.sleep(1);
+        }
+    }
+
+    private List<Future<Optional<Product>>> startLookups(ExecutorService executor, int callers, Long id) {
+        List<Future<Optional<Product>>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> productService.getProductById(id)));
+        }
+        return results;
+    }
+
+    private static AllocationRequest allocationRequest(AllocationRequest.Line... lines) {
+        AllocationRequest request = new AllocationRequest();
+        request.setLines(Arrays.asList(lines));
+        return request;
+    }
 }
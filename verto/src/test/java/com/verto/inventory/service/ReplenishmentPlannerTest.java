@@ -0,0 +1,175 @@
+package com.verto.inventory.service;
+
+import com.verto.inventory.config.ReplenishmentProperties;
+import com.verto.inventory.dto.ReplenishmentSuggestion;
+import com.verto.inventory.dto.StockLevel;
+import com.verto.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplenishmentPlannerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StockHistoryStore stockHistoryStore;
+
+    private ReplenishmentProperties properties;
+    private ReplenishmentPlanner replenishmentPlanner;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReplenishmentProperties();
+        properties.setChunkSize(2);
+        properties.setWorkers(2);
+        properties.setLeadTimeDays(7);
+        properties.setDefaultReorderQuantity(20);
+        replenishmentPlanner = new ReplenishmentPlanner(productRepository, stockHistoryStore, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replenishmentPlanner.shutdown();
+    }
+
+    @Test
+    void scan_ShouldSuggestLowAndFastSellingProducts() {
+        // Given
+        List<StockLevel> catalog = Arrays.asList(
+                new StockLevel(1L, "Laptop", 3, 5),
+                new StockLevel(2L, "Mouse", 40, 10),
+                new StockLevel(3L, "Keyboard", 40, 10));
+        stubCatalog(catalog);
+        when(stockHistoryStore.unitsPerDayBetween(anyLong(), anyLong())).thenReturn(Map.of(3L, 24.0));
+        properties.getReorderQuantities().put(1L, 50);
+
+        // When
+        List<ReplenishmentSuggestion> result = replenishmentPlanner.scan();
+
+        // Then
+        assertEquals(2, result.size());
+        ReplenishmentSuggestion laptop = result.get(0);
+        assertEquals(1L, laptop.getProductId());
+        assertEquals(50, laptop.getSuggestedQuantity());
+        assertNull(laptop.getDaysOfCover());
+
+        ReplenishmentSuggestion keyboard = result.get(1);
+        assertEquals(3L, keyboard.getProductId());
+        assertEquals(24.0, keyboard.getUnitsPerDay(), 0.001);
+        assertEquals(40.0 / 24.0, keyboard.getDaysOfCover(), 0.001);
+        assertEquals(10 + 7 * 24 - 40, keyboard.getSuggestedQuantity());
+        assertEquals(result, replenishmentPlanner.getSuggestions());
+    }
+
+    @Test
+    void scan_WhenChunkFails_ShouldKeepPreviousSuggestions() {
+        // Given
+        stubCatalog(Collections.singletonList(new StockLevel(1L, "Laptop", 3, 5)));
+        List<ReplenishmentSuggestion> previous = replenishmentPlanner.scan();
+        when(productRepository.findStockLevelsBetween(anyLong(), anyLong()))
+                .thenThrow(new RuntimeException("connection lost"));
+
+        // When
+        List<ReplenishmentSuggestion> result = replenishmentPlanner.scan();
+
+        // Then
+        assertEquals(1, previous.size());
+        assertSame(previous, result);
+    }
+
+    @Test
+    void scan_WhenWorkersRejectChunk_ShouldKeepPreviousSuggestionsWithoutHanging() {
+        // Given
+        stubCatalog(Collections.singletonList(new StockLevel(1L, "Laptop", 3, 5)));
+        List<ReplenishmentSuggestion> previous = replenishmentPlanner.scan();
+        replenishmentPlanner.shutdown();
+
+        // When
+        List<ReplenishmentSuggestion> result = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> replenishmentPlanner.scan());
+
+        // Then
+        assertSame(previous, result);
+    }
+
+    @Test
+    void scan_WithMillionProducts_ShouldKeepOnlyMostUrgentSuggestions() {
+        // Given
+        long catalogSize = 1_000_000;
+        properties.setChunkSize(5_000);
+        properties.setWorkers(4);
+        properties.setMaxSuggestions(100);
+        replenishmentPlanner.shutdown();
+        replenishmentPlanner = new ReplenishmentPlanner(productRepository, stockHistoryStore, properties);
+        when(productRepository.findIdsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = Math.max(0, invocation.<Long>getArgument(0));
+            int limit = invocation.<Pageable>getArgument(1).getPageSize();
+            List<Long> ids = new ArrayList<>(limit);
+            for (long id = afterId + 1; id <= catalogSize && ids.size() < limit; id++) {
+                ids.add(id);
+            }
+            return ids;
+        });
+        when(productRepository.findStockLevelsBetween(anyLong(), anyLong())).thenAnswer(invocation -> {
+            long fromId = invocation.getArgument(0);
+            long toId = invocation.getArgument(1);
+            List<StockLevel> levels = new ArrayList<>((int) (toId - fromId + 1));
+            for (long id = fromId; id <= toId; id++) {
+                levels.add(new StockLevel(id, "SKU-" + id, (int) (id % 10), 5));
+            }
+            return levels;
+        });
+
+        // When
+        List<ReplenishmentSuggestion> result = replenishmentPlanner.scan();
+
+        // Then
+        assertEquals(100, result.size());
+        assertTrue(result.stream().allMatch(s -> s.getStockQuantity() == 0));
+        verify(productRepository, times(200)).findStockLevelsBetween(anyLong(), anyLong());
+    }
+
+    private void stubCatalog(List<StockLevel> catalog) {
+        lenient().when(productRepository.findIdsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int limit = invocation.<Pageable>getArgument(1).getPageSize();
+            List<Long> ids = new ArrayList<>();
+            for (StockLevel level : catalog) {
+                if (level.getId() > afterId && ids.size() < limit) {
+                    ids.add(level.getId());
+                }
+            }
+            return ids;
+        });
+        lenient().when(productRepository.findStockLevelsBetween(anyLong(), anyLong())).thenAnswer(invocation -> {
+            long fromId = invocation.getArgument(0);
+            long toId = invocation.getArgument(1);
+            List<StockLevel> levels = new ArrayList<>();
+            for (StockLevel level : catalog) {
+                if (level.getId() >= fromId && level.getId() <= toId) {
+                    levels.add(level);
+                }
+            }
+            return levels;
+        });
+    }
+}
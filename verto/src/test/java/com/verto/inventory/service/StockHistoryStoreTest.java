@@ -0,0 +1,185 @@
+package com.verto.inventory.service;
+
+import com.verto.inventory.dto.HistoryResolution;
+import com.verto.inventory.dto.StockHistory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockHistoryStoreTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private AtomicLong clock;
+    private StockHistoryStore stockHistoryStore;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:history;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM stock_history");
+        jdbcTemplate.update("DELETE FROM stock_history_series");
+        clock = new AtomicLong(Instant.parse("2024-01-01T00:00:00Z").toEpochMilli());
+        stockHistoryStore = new StockHistoryStore(jdbcTemplate, 5, 4, 3, clock::get);
+    }
+
+    @Test
+    void getHistory_ShouldDownsampleIntoBucketsPerResolution() {
+        // Given
+        stockHistoryStore.record(1L, 10, 0);
+        clock.addAndGet(MINUTE);
+        stockHistoryStore.record(1L, 0, 2);
+        stockHistoryStore.record(1L, 0, 3);
+        clock.addAndGet(2 * MINUTE);
+
+        // When
+        List<StockHistory.Point> minutes = stockHistoryStore.getHistory(1L, HistoryResolution.MINUTE, 5).getPoints();
+        List<StockHistory.Point> hours = stockHistoryStore.getHistory(1L, HistoryResolution.HOUR, 5).getPoints();
+
+        // Then
+        assertEquals(5, minutes.size());
+        assertNull(minutes.get(0).getStockLevel());
+        assertEquals(10, minutes.get(1).getStockLevel());
+        assertEquals(5, minutes.get(2).getStockLevel());
+        assertEquals(5, minutes.get(2).getDecreased());
+        assertEquals(5, minutes.get(4).getStockLevel(), "idle buckets keep the level");
+        assertEquals(0, minutes.get(4).getDecreased());
+        assertEquals(Instant.parse("2024-01-01T00:03:00Z"), minutes.get(4).getBucketStart());
+
+        assertEquals(4, hours.size());
+        assertEquals(5, hours.get(3).getStockLevel());
+        assertEquals(5, hours.get(3).getDecreased());
+    }
+
+    @Test
+    void getHistory_WhenRecordedBucketsRollOut_ShouldReportCurrentLevelThroughout() {
+        // Given
+        stockHistoryStore.record(1L, 10, 0);
+        clock.addAndGet(MINUTE);
+        stockHistoryStore.record(1L, 0, 3);
+        clock.addAndGet(10 * MINUTE);
+
+        // When
+        List<StockHistory.Point> minutes = stockHistoryStore.getHistory(1L, HistoryResolution.MINUTE, 7).getPoints();
+
+        // Then
+        assertTrue(minutes.stream().allMatch(point -> point.getStockLevel() == 7 && point.getDecreased() == 0));
+    }
+
+    @Test
+    void getHistory_WhenMovesRecordedOutOfCommitOrder_ShouldRebuildSameLevels() {
+        // Given
+        stockHistoryStore.record(1L, 10, 0);
+        stockHistoryStore.record(2L, 10, 0);
+        clock.addAndGet(MINUTE);
+        stockHistoryStore.record(1L, 0, 3);
+        stockHistoryStore.record(1L, 4, 0);
+        stockHistoryStore.record(2L, 4, 0);
+        stockHistoryStore.record(2L, 0, 3);
+        clock.addAndGet(MINUTE);
+
+        // When
+        List<StockHistory.Point> inOrder = stockHistoryStore.getHistory(1L, HistoryResolution.MINUTE, 11).getPoints();
+        List<StockHistory.Point> reversed = stockHistoryStore.getHistory(2L, HistoryResolution.MINUTE, 11).getPoints();
+
+        // Then
+        assertEquals(10, inOrder.get(2).getStockLevel());
+        assertEquals(11, inOrder.get(3).getStockLevel());
+        assertEquals(3, inOrder.get(3).getDecreased());
+        assertEquals(inOrder, reversed);
+    }
+
+    @Test
+    void record_WhenMovesComeFromSeveralNodes_ShouldShareOneSeries() {
+        // Given
+        StockHistoryStore otherNode = new StockHistoryStore(jdbcTemplate, 5, 4, 3, clock::get);
+        stockHistoryStore.record(1L, 100_000, 0);
+        otherNode.record(1L, 0, 200);
+        stockHistoryStore.record(1L, 0, 200);
+        otherNode.record(1L, 0, 70_000);
+
+        // When
+        List<StockHistory.Point> seenHere = stockHistoryStore.getHistory(1L, HistoryResolution.MINUTE, 29_600).getPoints();
+        List<StockHistory.Point> seenThere = otherNode.getHistory(1L, HistoryResolution.MINUTE, 29_600).getPoints();
+
+        // Then
+        assertEquals(70_400, seenHere.get(4).getDecreased());
+        assertEquals(29_600, seenHere.get(4).getStockLevel());
+        assertNull(seenHere.get(3).getStockLevel());
+        assertEquals(seenHere, seenThere);
+        assertEquals(1, otherNode.size());
+    }
+
+    @Test
+    void getHistory_WhenNothingRecorded_ShouldReportCurrentLevelOnly() {
+        // When
+        List<StockHistory.Point> days = stockHistoryStore.getHistory(1L, HistoryResolution.DAY, 42).getPoints();
+
+        // Then
+        assertEquals(3, days.size());
+        assertNull(days.get(0).getStockLevel());
+        assertEquals(42, days.get(2).getStockLevel());
+    }
+
+    @Test
+    void unitsPerDayBetween_ShouldAverageDecreasesOverHourRing() {
+        // Given
+        stockHistoryStore.record(1L, 0, 10);
+        clock.addAndGet(HOUR);
+        stockHistoryStore.record(1L, 0, 10);
+        stockHistoryStore.record(2L, 5, 0);
+        stockHistoryStore.record(9L, 0, 4);
+
+        // When
+        Map<Long, Double> unitsPerDay = stockHistoryStore.unitsPerDayBetween(1L, 8L);
+
+        // Then
+        assertEquals(Map.of(1L, 20.0 * 24 / 4), unitsPerDay);
+
+        // When
+        clock.addAndGet(4 * HOUR);
+
+        // Then
+        assertTrue(stockHistoryStore.unitsPerDayBetween(1L, 8L).isEmpty());
+    }
+
+    @Test
+    void prune_ShouldDropSeriesIdleForWholeDayRing() {
+        // Given
+        stockHistoryStore.record(1L, 10, 0);
+        stockHistoryStore.record(2L, 10, 0);
+        clock.addAndGet(2 * DAY);
+        stockHistoryStore.record(2L, 0, 1);
+        clock.addAndGet(DAY);
+
+        // When
+        stockHistoryStore.prune();
+
+        // Then
+        assertEquals(1, stockHistoryStore.size());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_history WHERE product_id = 1", Integer.class));
+        assertEquals(9, stockHistoryStore.getHistory(2L, HistoryResolution.DAY, 9).getPoints().get(2).getStockLevel());
+    }
+}